@@ -0,0 +1,29 @@
+package com.clear_solutions.test_assignment.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * The caching advice is ordered outside the transactional one so that
+ * evictions happen after the surrounding transaction has committed.
+ * <p>
+ * Cached users are loaded with {@code sync = true}: Caffeine computes the
+ * entry under the lock of its key, so an eviction issued while a load is in
+ * flight waits for the load and then removes the row it read. A load that
+ * read a row before an update committed can therefore not outlive the
+ * update's eviction.
+ * <p>
+ * The cache is local to each instance and evictions are not broadcast. With
+ * several instances a user changed through another one is served stale until
+ * {@code expireAfterWrite} in {@code spring.cache.caffeine.spec} drops it;
+ * deployments that cannot accept that window run with
+ * {@code spring.cache.type=none}.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+}
@@ -0,0 +1,56 @@
+package com.clear_solutions.test_assignment.config;
+
+import com.clear_solutions.test_assignment.model.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Refuses to start when the {@code users} table lacks the
+ * {@value User#EMAIL_CONSTRAINT} unique index. {@code ddl-auto=update} only
+ * logs a failed {@code alter table} when existing rows hold duplicate emails,
+ * and without the index duplicate signups would be stored instead of answered
+ * 409. {@code db/uk_users_email.sql} removes the duplicates and adds the index.
+ * <p>
+ * Runs after the entity manager factory, so after the schema update.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class EmailConstraintCheck {
+
+    private final DataSource dataSource;
+
+    public EmailConstraintCheck(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!hasUniqueIndex(connection.getMetaData(), connection.getCatalog(), connection.getSchema())) {
+                throw new IllegalStateException("Unique index " + User.EMAIL_CONSTRAINT
+                        + " is missing on table users, apply db/uk_users_email.sql to remove duplicate emails and add it");
+            }
+        }
+    }
+
+    private static boolean hasUniqueIndex(DatabaseMetaData metaData, String catalog, String schema) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? "USERS" : "users";
+        try (ResultSet indexes = metaData.getIndexInfo(catalog, schema, table, true, false)) {
+            while (indexes.next()) {
+                // MySQL names the index after the constraint, H2 appends _INDEX_<n>
+                String index = indexes.getString("INDEX_NAME");
+                if (index != null && index.regionMatches(true, 0, User.EMAIL_CONSTRAINT, 0, User.EMAIL_CONSTRAINT.length())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
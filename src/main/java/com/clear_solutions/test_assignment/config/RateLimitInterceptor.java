@@ -0,0 +1,213 @@
+package com.clear_solutions.test_assignment.config;
+
+import com.clear_solutions.test_assignment.exception.RateLimitExceededException;
+import com.clear_solutions.test_assignment.exception.ServiceOverloadedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rejects requests before they reach a handler, weighted by {@link RequestCost}:
+ * <ul>
+ * <li>each client has a token bucket of {@code user.rate-limit.capacity}
+ * tokens refilled at {@code user.rate-limit.refill-per-second}; a request the
+ * bucket cannot pay for is answered 429 with a {@code Retry-After};</li>
+ * <li>all requests together may hold at most
+ * {@code user.load-shedding.max-concurrent-cost} until their responses are
+ * complete, beyond that they are shed with 503 before any tokens are taken.</li>
+ * </ul>
+ * Clients are told apart by their principal, or else by their remote address,
+ * which honours {@code X-Forwarded-For} once {@code server.forward-headers-strategy}
+ * is set behind a proxy.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (the generic cell rate algorithm), so taking tokens is one CAS.
+ * Time comes from {@link System#nanoTime()}, which a wall clock step cannot
+ * move backwards.
+ * Buckets sit in a Caffeine map and are dropped once idle long enough to have
+ * refilled, which loses nothing.
+ */
+@Component
+@ConditionalOnProperty(name = "user.rate-limit.enabled", havingValue = "true")
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".PERMIT";
+
+    private final LongSupplier nanoTime;
+
+    private final int capacity;
+
+    private final long tokenNanos;
+
+    private final long burstNanos;
+
+    private final int maxConcurrentCost;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final AtomicInteger concurrentCost = new AtomicInteger();
+
+    @Autowired
+    public RateLimitInterceptor(@Value("${user.rate-limit.capacity}") int capacity,
+                                @Value("${user.rate-limit.refill-per-second}") int refillPerSecond,
+                                @Value("${user.rate-limit.max-clients}") long maxClients,
+                                @Value("${user.load-shedding.max-concurrent-cost}") int maxConcurrentCost) {
+        this(System::nanoTime, capacity, refillPerSecond, maxClients, maxConcurrentCost);
+    }
+
+    /**
+     * @param nanoTime monotonic time in nanoseconds, from an arbitrary origin
+     */
+    public RateLimitInterceptor(LongSupplier nanoTime, int capacity, int refillPerSecond, long maxClients,
+                                int maxConcurrentCost) {
+        this.nanoTime = nanoTime;
+        this.capacity = capacity;
+        this.tokenNanos = TimeUnit.SECONDS.toNanos(1) / refillPerSecond;
+        this.burstNanos = capacity * tokenNanos;
+        this.maxConcurrentCost = maxConcurrentCost;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    /**
+     * Async and error dispatches belong to a request that was already let in.
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RequestCost requestCost = handlerMethod.getMethodAnnotation(RequestCost.class);
+        int cost = requestCost == null ? 1 : requestCost.value();
+        boolean concurrent = requestCost == null || requestCost.concurrent();
+        // Shedding comes first, so a client is not charged for requests the server turned away
+        if (concurrent && !acquire(cost)) {
+            throw new ServiceOverloadedException();
+        }
+        long waitNanos = take(clientId(request), cost);
+        if (waitNanos > 0) {
+            if (concurrent) {
+                release(cost);
+            }
+            throw new RateLimitExceededException(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+        }
+        if (concurrent) {
+            request.setAttribute(PERMIT_ATTRIBUTE, cost);
+        }
+        return true;
+    }
+
+    /**
+     * A streamed response keeps its budget until the async request completes,
+     * however it ends.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Integer cost = (Integer) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (cost != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            request.getAsyncContext().addListener(new ReleaseOnComplete(cost));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Integer cost = (Integer) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (cost != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            release(cost);
+        }
+    }
+
+    /**
+     * Takes {@code cost} tokens from the client's bucket. A request costing
+     * more than the whole bucket is charged the whole bucket.
+     *
+     * @return {@code 0} if the tokens were taken, otherwise nanoseconds until they will be there
+     */
+    private long take(String clientId, int cost) {
+        AtomicLong fullAt = buckets.get(clientId, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoTime.getAsLong();
+        long charge = Math.min(cost, capacity) * tokenNanos;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + charge;
+            long waitNanos = next - now - burstNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A request costing more than the whole budget is let in when nothing else is running.
+     */
+    private boolean acquire(int cost) {
+        while (true) {
+            int current = concurrentCost.get();
+            if (current > 0 && current + cost > maxConcurrentCost) {
+                return false;
+            }
+            if (concurrentCost.compareAndSet(current, current + cost)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(int cost) {
+        concurrentCost.addAndGet(-cost);
+    }
+
+    private static String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? principal.getName() : request.getRemoteAddr();
+    }
+
+    private final class ReleaseOnComplete implements AsyncListener {
+
+        private final int cost;
+
+        ReleaseOnComplete(int cost) {
+            this.cost = cost;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(cost);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
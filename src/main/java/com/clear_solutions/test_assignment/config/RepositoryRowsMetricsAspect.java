@@ -0,0 +1,49 @@
+package com.clear_solutions.test_assignment.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many rows each {@code UserRepository} query returns as the
+ * {@code user.repository.rows} summary, tagged with the repository method.
+ * Timings of the same calls come from Spring Data's repository metrics.
+ */
+@Aspect
+@Component
+public class RepositoryRowsMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowsMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @AfterReturning(pointcut = "target(com.clear_solutions.test_assignment.repository.UserRepository)",
+            returning = "result")
+    public void recordRows(JoinPoint joinPoint, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            rows = optional.isPresent() ? 1 : 0;
+        } else {
+            return;
+        }
+        summaries.computeIfAbsent(joinPoint.getSignature().getName(), method -> DistributionSummary
+                .builder("user.repository.rows")
+                .description("Rows returned per UserRepository query")
+                .tag("method", method)
+                .register(meterRegistry)).record(rows);
+    }
+}
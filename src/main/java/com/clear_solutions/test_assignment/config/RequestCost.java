@@ -0,0 +1,28 @@
+package com.clear_solutions.test_assignment.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Weight of a handler method for {@link RateLimitInterceptor}; handlers
+ * without it cost {@code 1}, about the price of a lookup by primary key.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestCost {
+
+    /**
+     * Tokens taken from the client's bucket, and units of the in-flight budget held until the response is complete.
+     */
+    int value();
+
+    /**
+     * Whether the request holds in-flight budget. Off for long-lived streams
+     * that spend their time waiting, which would otherwise pin it.
+     */
+    boolean concurrent() default true;
+}
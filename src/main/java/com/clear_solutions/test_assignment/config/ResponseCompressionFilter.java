@@ -0,0 +1,404 @@
+package com.clear_solutions.test_assignment.config;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Applies {@code server.compression} to every response: bodies of the listed
+ * MIME types below {@code min-response-size} are sent as they are, larger
+ * ones are Brotli-encoded for clients sending {@code Accept-Encoding: br} and
+ * left to Tomcat's gzip for everyone else. A response encoded here carries a
+ * {@code Content-Encoding} header and Tomcat leaves it alone; a strong
+ * {@code ETag} on it is made weak, as the encoded bytes differ from the
+ * representation it names (RFC 9110, section 8.8.3).
+ * <p>
+ * The first {@code min-response-size} bytes of a compressible body are held
+ * back to make that call, flushes included: message converters flush after
+ * every body, which would otherwise commit the response without a length and
+ * have Tomcat gzip it whatever its size. A body that ends below the threshold
+ * goes out with its {@code Content-Length}. Everything after the threshold is
+ * encoded as it is written, so streamed responses such as the export stay
+ * streamed. Async requests are finished on the dispatch that completes them.
+ * A body written without blocking, through a {@link WriteListener}, is passed
+ * through as it is and left to Tomcat's gzip.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCompressionFilter.class);
+
+    private static final String BROTLI = "br";
+
+    private static final String RESPONSE_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".RESPONSE";
+
+    private final boolean brotliAvailable;
+
+    private final int minResponseSize;
+
+    private final List<MimeType> mimeTypes;
+
+    private final Encoder.Parameters parameters;
+
+    public ResponseCompressionFilter(ServerProperties serverProperties,
+                                     @Value("${user.compression.brotli.quality}") int quality) {
+        Compression compression = serverProperties.getCompression();
+        this.brotliAvailable = Brotli4jLoader.isAvailable();
+        if (!brotliAvailable) {
+            LOGGER.warn("Brotli is not available on this platform, responses fall back to gzip",
+                    Brotli4jLoader.getUnavailabilityCause());
+        }
+        this.minResponseSize = Math.toIntExact(compression.getMinResponseSize().toBytes());
+        this.mimeTypes = new ArrayList<>(compression.getMimeTypes().length);
+        for (String mimeType : compression.getMimeTypes()) {
+            mimeTypes.add(MimeTypeUtils.parseMimeType(mimeType));
+        }
+        this.parameters = new Encoder.Parameters().setQuality(quality);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        CompressionResponse compressionResponse = (CompressionResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (compressionResponse == null) {
+            boolean brotli = brotliAvailable && acceptsBrotli(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            compressionResponse = new CompressionResponse(response, brotli);
+            request.setAttribute(RESPONSE_ATTRIBUTE, compressionResponse);
+            filterChain.doFilter(request, compressionResponse);
+        } else {
+            // Async dispatch: the body went to the response wrapped on the initial dispatch
+            filterChain.doFilter(request, response);
+        }
+        if (!request.isAsyncStarted()) {
+            compressionResponse.finish();
+        }
+    }
+
+    static boolean acceptsBrotli(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (BROTLI.equalsIgnoreCase(parts[0].trim())) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                    if (parameter.startsWith("q=") && !isPositive(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A malformed client-supplied q-value counts as not acceptable.
+     */
+    private static boolean isPositive(String qValue) {
+        try {
+            return Double.parseDouble(qValue) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType;
+        try {
+            mimeType = MimeTypeUtils.parseMimeType(contentType);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MimeType compressible : mimeTypes) {
+            if (compressible.isCompatibleWith(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holds back the {@code Content-Length} of the wrapped response until it is
+     * known whether the body will be encoded.
+     */
+    private final class CompressionResponse extends HttpServletResponseWrapper {
+
+        private final boolean brotli;
+
+        private CompressionServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private long contentLength = -1;
+
+        CompressionResponse(HttpServletResponse response, boolean brotli) {
+            super(response);
+            this.brotli = brotli;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return compressionOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                Charset charset = Charset.forName(getCharacterEncoding());
+                writer = new PrintWriter(new OutputStreamWriter(compressionOutputStream(), charset));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            contentLength = length;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = value == null ? -1 : Long.parseLong(value);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.flush();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            writer = null;
+            outputStream = null;
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            } else if (contentLength >= 0) {
+                getResponse().setContentLengthLong(contentLength);
+            }
+        }
+
+        private CompressionServletOutputStream compressionOutputStream() {
+            if (outputStream == null) {
+                outputStream = new CompressionServletOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        /**
+         * Whether the body is a candidate for compression at all, by this filter or by Tomcat.
+         */
+        boolean isCompressible() {
+            return getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && ResponseCompressionFilter.this.isCompressible(getContentType());
+        }
+
+        /**
+         * @param written size of the body so far, including the bytes about to be written
+         */
+        boolean shouldCompress(long written) {
+            if (!brotli || !isCompressible()) {
+                return false;
+            }
+            return contentLength < 0 ? written >= minResponseSize : contentLength >= minResponseSize;
+        }
+
+        /**
+         * @param complete size of the whole body, {@code -1} while it is still being written
+         */
+        ServletOutputStream rawOutputStream(boolean compressed, long complete) throws IOException {
+            if (compressed) {
+                setHeader(HttpHeaders.CONTENT_ENCODING, BROTLI);
+                addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                String etag = getHeader(HttpHeaders.ETAG);
+                if (etag != null && etag.startsWith("\"")) {
+                    setHeader(HttpHeaders.ETAG, "W/" + etag);
+                }
+            } else if (contentLength >= 0) {
+                getResponse().setContentLengthLong(contentLength);
+            } else if (complete >= 0) {
+                getResponse().setContentLengthLong(complete);
+            }
+            return getResponse().getOutputStream();
+        }
+    }
+
+    /**
+     * Buffers until the size threshold is reached or the body ends, then
+     * either encodes or passes everything through.
+     */
+    private final class CompressionServletOutputStream extends ServletOutputStream {
+
+        private final CompressionResponse response;
+
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private OutputStream target;
+
+        private ServletOutputStream rawOutputStream;
+
+        private boolean nonBlocking;
+
+        CompressionServletOutputStream(CompressionResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                long written = buffer.size() + (long) length;
+                boolean compress = response.shouldCompress(written);
+                if (written < minResponseSize && !compress) {
+                    buffer.write(bytes, offset, length);
+                    return;
+                }
+                open(compress, -1);
+            }
+            target.write(bytes, offset, length);
+        }
+
+        /**
+         * Before the threshold a compressible body keeps buffering, anything
+         * else, such as an event stream, goes out right away.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                if (response.isCompressible()) {
+                    return;
+                }
+                open(false, -1);
+            }
+            target.flush();
+        }
+
+        void finish() throws IOException {
+            if (nonBlocking) {
+                // The listener's writes went straight out, flushing is up to it
+                return;
+            }
+            if (target == null) {
+                open(response.shouldCompress(buffer.size()), buffer.size());
+            }
+            if (target instanceof BrotliOutputStream) {
+                target.close();
+            } else {
+                target.flush();
+            }
+        }
+
+        private void open(boolean compress, long complete) throws IOException {
+            rawOutputStream = response.rawOutputStream(compress, complete);
+            target = compress ? new BrotliOutputStream(rawOutputStream, parameters) : rawOutputStream;
+            buffer.writeTo(target);
+            buffer = null;
+        }
+
+        @Override
+        public boolean isReady() {
+            return rawOutputStream == null || rawOutputStream.isReady();
+        }
+
+        /**
+         * Hands non-blocking writes to the wrapped stream; anything buffered so
+         * far is written out first, while the stream still blocks.
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (target == null) {
+                try {
+                    open(false, -1);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Buffered response body could not be written", e);
+                }
+            } else if (target != rawOutputStream) {
+                throw new IllegalStateException("Non-blocking writes cannot follow a compressed body");
+            }
+            nonBlocking = true;
+            rawOutputStream.setWriteListener(writeListener);
+        }
+    }
+}
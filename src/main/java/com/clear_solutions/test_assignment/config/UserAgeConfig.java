@@ -0,0 +1,20 @@
+package com.clear_solutions.test_assignment.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(UserAgeProperties.class)
+public class UserAgeConfig {
+
+    /**
+     * The clock "today" is taken from, replaceable in tests.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -0,0 +1,20 @@
+package com.clear_solutions.test_assignment.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties("user")
+public class UserAgeProperties {
+
+    /**
+     * Age in full years a user must have reached to register; checked once at startup.
+     */
+    @Min(1)
+    @Max(150)
+    private int age = 18;
+}
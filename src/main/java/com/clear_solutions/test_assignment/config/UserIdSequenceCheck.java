@@ -0,0 +1,68 @@
+package com.clear_solutions.test_assignment.config;
+
+import com.clear_solutions.test_assignment.model.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Refuses to start when the {@code users_seq} table would hand out ids that
+ * are already taken. On MySQL Hibernate emulates the sequence with a table,
+ * and {@code ddl-auto=update} creates it with {@code next_val = 1} next to a
+ * {@code users} table filled while ids were still {@code IDENTITY}, so every
+ * insert would fail on a duplicate primary key. {@code db/users_seq.sql}
+ * seeds {@code next_val} above the highest id.
+ * <p>
+ * Databases with native sequences have no such table and are not checked.
+ * Runs after the entity manager factory, so after the schema update.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class UserIdSequenceCheck {
+
+    private final DataSource dataSource;
+
+    public UserIdSequenceCheck(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!hasSequenceTable(connection.getMetaData(), connection.getCatalog(), connection.getSchema())) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                long nextValue = queryLong(statement, "select max(next_val) from users_seq");
+                long maxId = queryLong(statement, "select max(id) from users");
+                // The pooled optimizer reserves the block ending at the value it reads
+                long firstId = Math.max(1, nextValue - User.ID_ALLOCATION_SIZE + 1);
+                if (firstId <= maxId) {
+                    throw new IllegalStateException("Table users_seq would allocate id " + firstId
+                            + " while users already holds ids up to " + maxId
+                            + ", apply db/users_seq.sql to seed next_val above them");
+                }
+            }
+        }
+    }
+
+    private static boolean hasSequenceTable(DatabaseMetaData metaData, String catalog, String schema) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? "USERS_SEQ" : "users_seq";
+        try (ResultSet tables = metaData.getTables(catalog, schema, table, new String[]{"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.clear_solutions.test_assignment.config;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserProtobufEncoder;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes users as {@code application/x-protobuf}, see {@code src/main/proto/user.proto}.
+ * A single user is one message; a collection is written element by element
+ * as length-delimited messages through a fixed-size buffer, never as one
+ * encoded payload. Write-only, request bodies stay JSON.
+ */
+public class UserProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public static final MediaType DELIMITED_PROTOBUF = new MediaType(PROTOBUF, Map.of("delimited", "true"));
+
+    private static final int BUFFER_SIZE = 8192;
+
+    public UserProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserDTO.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (UserDTO.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        if (type == null || !Collection.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> elementClass = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return elementClass != null && UserDTO.class.isAssignableFrom(elementClass);
+    }
+
+    @Override
+    protected void addDefaultHeaders(HttpHeaders headers, Object object, MediaType contentType) throws IOException {
+        super.addDefaultHeaders(headers, object, object instanceof Collection ? DELIMITED_PROTOBUF : contentType);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        if (object instanceof UserDTO user) {
+            UserProtobufEncoder.write(user, output);
+        } else {
+            for (Object user : (Collection<?>) object) {
+                UserProtobufEncoder.writeDelimited((UserDTO) user, output);
+            }
+        }
+        output.flush();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+}
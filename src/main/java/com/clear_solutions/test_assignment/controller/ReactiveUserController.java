@@ -0,0 +1,128 @@
+package com.clear_solutions.test_assignment.controller;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.exception.UserInvalidAgeException;
+import com.clear_solutions.test_assignment.exception.UserValidationException;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.service.ReactiveUserService;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * {@code /api/users} on WebFlux, active with the {@code reactive} profile in
+ * place of {@link UserController}. Collections are streamed as they are read,
+ * as a JSON array or, for {@code application/x-ndjson}, one user per line;
+ * a slow client slows the database read down instead of piling rows up in
+ * memory. Request bodies are checked by {@link UserDTOValidator} and the
+ * errors come back in the same shape as on the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/users")
+@Profile("reactive")
+public class ReactiveUserController {
+
+    private final ReactiveUserService reactiveUserService;
+
+    private final UserService userService;
+
+    private final UserMapper userMapper;
+
+    private final UserDTOValidator userDTOValidator;
+
+    @Autowired
+    public ReactiveUserController(ReactiveUserService reactiveUserService, UserService userService,
+                                  UserMapper userMapper, UserDTOValidator userDTOValidator) {
+        this.reactiveUserService = reactiveUserService;
+        this.userService = userService;
+        this.userMapper = userMapper;
+        this.userDTOValidator = userDTOValidator;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserDTO>> saveUser(@RequestBody UserDTO userDTO) {
+        List<String> errors = userDTOValidator.validate(userDTO);
+        if (!errors.isEmpty()) {
+            return Mono.error(new UserValidationException(errors));
+        }
+        if (!userService.isAdultUser(userDTO.getBirthDate())) {
+            return Mono.error(new UserInvalidAgeException("Invalid user age"));
+        }
+        return reactiveUserService.saveUser(userMapper.toEntity(userDTO))
+                .map(user -> new ResponseEntity<>(userMapper.toDto(user), HttpStatus.CREATED));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserDTO> getAllUsers() {
+        return reactiveUserService.getAllUsers().map(userMapper::toDto);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<UserDTO>> getUserById(@PathVariable("id") long userId, ServerWebExchange exchange) {
+        return reactiveUserService.getUserById(userId).mapNotNull(user -> {
+            String etag = UserEtags.of(user);
+            if (exchange.checkNotModified(etag)) {
+                return null;
+            }
+            return ResponseEntity.ok().eTag(etag).body(userMapper.toDto(user));
+        });
+    }
+
+    @GetMapping(value = "{fromDate}/{toDate}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UserDTO> getAllUsersByDateRange(@PathVariable("fromDate") LocalDate from,
+                                                @PathVariable("toDate") LocalDate to) {
+        return reactiveUserService.usersByBirthDateRange(from, to).map(userMapper::toDto);
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<UserDTO>> updateUser(@RequestBody UserDTO userDTO,
+                                                    @PathVariable("id") long userId,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return expectedVersion(ifMatch, userId).flatMap(expectedVersion ->
+                reactiveUserService.updateUser(userMapper.toEntity(userDTO), userId, expectedVersion.orElse(null))
+                        .map(user -> {
+                            if (expectedVersion.isEmpty()) {
+                                // The new version is only known when the update was conditional
+                                return new ResponseEntity<>(userMapper.toDto(user), HttpStatus.OK);
+                            }
+                            return ResponseEntity.ok().eTag(UserEtags.of(user)).body(userMapper.toDto(user));
+                        }));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteUser(@PathVariable("id") long userId,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return expectedVersion(ifMatch, userId)
+                .flatMap(expectedVersion -> reactiveUserService.deleteUser(userId, expectedVersion.orElse(null)))
+                .thenReturn(new ResponseEntity<>("User has been deleted", HttpStatus.OK));
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, empty if the request is
+     * unconditional; a list of several versions is narrowed to the current one.
+     */
+    private Mono<Optional<Long>> expectedVersion(String ifMatch, long userId) {
+        List<Long> versions = UserEtags.expectedVersions(ifMatch);
+        if (versions == null) {
+            return Mono.just(Optional.empty());
+        }
+        if (versions.size() == 1) {
+            return Mono.just(Optional.of(versions.get(0)));
+        }
+        return reactiveUserService.getUserById(userId)
+                .map(user -> Optional.of(UserEtags.matchingVersion(versions, user.getVersion())));
+    }
+}
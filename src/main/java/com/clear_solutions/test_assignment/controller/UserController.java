@@ -1,31 +1,124 @@
 package com.clear_solutions.test_assignment.controller;
 
+import com.clear_solutions.test_assignment.config.RequestCost;
+import com.clear_solutions.test_assignment.config.UserProtobufHttpMessageConverter;
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+import com.clear_solutions.test_assignment.dto.BulkUserRequestDTO;
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+import com.clear_solutions.test_assignment.dto.ImportRequestDTO;
 import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.dto.UserPageDTO;
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
+import com.clear_solutions.test_assignment.exception.SearchPageException;
 import com.clear_solutions.test_assignment.exception.UserInvalidAgeException;
+import com.clear_solutions.test_assignment.exception.UserValidationException;
 import com.clear_solutions.test_assignment.mapper.UserMapper;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserBulkService;
+import com.clear_solutions.test_assignment.service.UserChangeService;
+import com.clear_solutions.test_assignment.service.UserImportService;
 import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
+@Profile("!reactive")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * Search pages by OFFSET over a rank ordering, which costs more the deeper
+     * the page; only the best matches are worth paging through anyway.
+     */
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
+    private static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    /**
+     * Formats of user bodies, in the order of their message converters.
+     */
+    private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_CBOR, UserProtobufHttpMessageConverter.PROTOBUF);
+
     private final UserService userService;
 
+    private final UserBatchService userBatchService;
+
+    private final UserBulkService userBulkService;
+
+    private final UserImportService userImportService;
+
+    private final UserChangeService userChangeService;
+
     private final UserMapper userMapper;
 
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter exportWriter;
+
+    private final UserDTOValidator userDTOValidator;
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
     @Autowired
-    public UserController(UserService userService, UserMapper userMapper) {
+    public UserController(UserService userService, UserBatchService userBatchService, UserBulkService userBulkService,
+                          UserImportService userImportService, UserChangeService userChangeService,
+                          UserMapper userMapper, ObjectMapper objectMapper, UserDTOValidator userDTOValidator,
+                          ContentNegotiationManager contentNegotiationManager) {
         this.userService = userService;
+        this.userBatchService = userBatchService;
+        this.userBulkService = userBulkService;
+        this.userImportService = userImportService;
+        this.userChangeService = userChangeService;
         this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.userDTOValidator = userDTOValidator;
+        this.contentNegotiationManager = contentNegotiationManager;
+        this.exportWriter = objectMapper.writerFor(UserDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * {@code @Valid UserDTO} bodies are checked by {@link UserDTOValidator} instead of Bean Validation.
+     */
+    @InitBinder("userDTO")
+    public void initUserDTOBinder(WebDataBinder binder) {
+        binder.setValidator(userDTOValidator);
     }
 
     @PostMapping
@@ -37,33 +130,282 @@ public class UserController {
         throw new UserInvalidAgeException("Invalid user age");
     }
 
+    @RequestCost(20)
+    @PostMapping("batch")
+    public BatchResultDTO saveUsers(@RequestBody List<UserDTO> userDTOs) {
+        return userBatchService.saveUsers(userDTOs);
+    }
+
+    @RequestCost(10)
+    @PostMapping("bulk-delete")
+    public ResponseEntity<BulkJobDTO> bulkDeleteUsers(@RequestBody BulkUserRequestDTO request) {
+        BulkJobDTO job = userBulkService.startDelete(request);
+        return accepted("/api/users/bulk-jobs/{id}", job.getId(), job);
+    }
+
+    @RequestCost(10)
+    @PostMapping("bulk-update")
+    public ResponseEntity<BulkJobDTO> bulkUpdateUsers(@RequestBody BulkUserRequestDTO request) {
+        BulkJobDTO job = userBulkService.startUpdate(request);
+        return accepted("/api/users/bulk-jobs/{id}", job.getId(), job);
+    }
+
+    @GetMapping("bulk-jobs/{id}")
+    public BulkJobDTO getBulkJob(@PathVariable("id") String jobId) {
+        return userBulkService.getJob(jobId);
+    }
+
+    @RequestCost(10)
+    @PostMapping("import")
+    public ResponseEntity<ImportJobDTO> importUsers(@RequestBody ImportRequestDTO request) {
+        ImportJobDTO job = userImportService.startImport(request);
+        return accepted("/api/users/import-jobs/{id}", job.getId(), job);
+    }
+
+    @GetMapping("import-jobs/{id}")
+    public ImportJobDTO getImportJob(@PathVariable("id") String jobId) {
+        return userImportService.getJob(jobId);
+    }
+
+    @RequestCost(20)
     @GetMapping
-    public List<UserDTO> getAllUsers() {
-        return userMapper.toDtoList(userService.getAllUsers());
+    public List<UserDTO> getAllUsers(NativeWebRequest webRequest) {
+        List<User> users = userService.getAllUsers();
+        if (webRequest.checkNotModified(UserEtags.of(users, representation(webRequest)))) {
+            return null;
+        }
+        return userMapper.toDtoList(users);
+    }
+
+    @RequestCost(2)
+    @GetMapping(params = "limit")
+    public UserPageDTO getUsersPage(@RequestParam("limit") int limit,
+                                    @RequestParam(value = "after", required = false) String after,
+                                    NativeWebRequest webRequest) {
+        int pageSize = pageSize(limit);
+        List<User> users = userService.getUsersPage(UserCursor.decode(after).getId(), pageSize);
+        if (webRequest.checkNotModified(UserEtags.of(users, representation(webRequest)))) {
+            return null;
+        }
+        String nextCursor = null;
+        if (users.size() == pageSize) {
+            nextCursor = UserCursor.of(users.get(users.size() - 1).getId()).encode();
+        }
+        return new UserPageDTO(userMapper.toDtoList(users), nextCursor);
+    }
+
+    /**
+     * Server-Sent Events stream of user changes after the given offset. Reconnecting
+     * clients resume from the {@code Last-Event-ID} header, which wins over {@code after}.
+     * A {@code RESET} event means the changes after the offset are no longer kept: the
+     * client reloads the users and applies the changes that follow.
+     */
+    @RequestCost(value = 1, concurrent = false)
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(value = "after", defaultValue = "0") long afterId,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        userChangeService.subscribe(emitter, lastEventId != null ? lastEventId : afterId);
+        return emitter;
+    }
+
+    @RequestCost(20)
+    @GetMapping(value = "export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = exportWriter.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userService.exportUsers(user -> writeLine(generator, userMapper.toDto(user)));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("by-email/{email}")
+    public UserDTO getUserByEmail(@PathVariable("email") String email) {
+        return userMapper.toDto(userService.getUserByEmail(email));
+    }
+
+    /**
+     * Signup availability check. Answered from the email Bloom filter without a
+     * query when it is enabled and the email is definitely not registered.
+     */
+    @GetMapping("by-email/{email}/exists")
+    public boolean isEmailRegistered(@PathVariable("email") String email) {
+        return userService.isEmailRegistered(email);
+    }
+
+    /**
+     * Ranked search, paged through the first {@value #MAX_SEARCH_RESULTS} matches;
+     * a page starting past them, or a term shorter than three characters, is rejected.
+     */
+    @RequestCost(5)
+    @GetMapping("search")
+    public List<UserDTO> searchUsers(@RequestParam("q") String query,
+                                     @RequestParam(value = "page", defaultValue = "0") int page,
+                                     @RequestParam(value = "size", defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        if ((long) pageNumber * pageSize >= MAX_SEARCH_RESULTS) {
+            throw new SearchPageException("Search results are limited to the first " + MAX_SEARCH_RESULTS + " matches");
+        }
+        return userMapper.toDtoList(userService.searchUsers(query, pageNumber, pageSize));
+    }
+
+    @GetMapping("stats")
+    public UserStatsDTO getUserStats() {
+        return userService.getUserStats();
     }
 
     @GetMapping("{id}")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable("id") long userId) {
+    public ResponseEntity<UserDTO> getUserById(@PathVariable("id") long userId, NativeWebRequest webRequest) {
         User user = userService.getUserById(userId);
-        return new ResponseEntity<>(userMapper.toDto(user), HttpStatus.OK);
+        String etag = UserEtags.of(user, representation(webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(userMapper.toDto(user));
     }
 
+    @RequestCost(10)
     @GetMapping("{fromDate}/{toDate}")
     public List<UserDTO> getAllUsersByDateRange(@PathVariable("fromDate") LocalDate from,
-                                                @PathVariable("toDate") LocalDate to) {
-        return userMapper.toDtoList(userService.usersByBirthDateRange(from, to));
+                                                @PathVariable("toDate") LocalDate to,
+                                                NativeWebRequest webRequest) {
+        List<User> users = userService.usersByBirthDateRange(from, to);
+        if (webRequest.checkNotModified(UserEtags.of(users, representation(webRequest)))) {
+            return null;
+        }
+        return userMapper.toDtoList(users);
+    }
+
+    @RequestCost(2)
+    @GetMapping(value = "{fromDate}/{toDate}", params = "limit")
+    public UserPageDTO getUsersPageByDateRange(@PathVariable("fromDate") LocalDate from,
+                                               @PathVariable("toDate") LocalDate to,
+                                               @RequestParam("limit") int limit,
+                                               @RequestParam(value = "after", required = false) String after,
+                                               NativeWebRequest webRequest) {
+        int pageSize = pageSize(limit);
+        UserCursor cursor = UserCursor.decode(after);
+        List<User> users = userService.usersByBirthDateRangePage(from, to,
+                cursor.getBirthDate(), cursor.getId(), pageSize);
+        if (webRequest.checkNotModified(UserEtags.of(users, representation(webRequest)))) {
+            return null;
+        }
+        String nextCursor = null;
+        if (users.size() == pageSize) {
+            User last = users.get(users.size() - 1);
+            nextCursor = UserCursor.of(last.getBirthDate(), last.getId()).encode();
+        }
+        return new UserPageDTO(userMapper.toDtoList(users), nextCursor);
     }
 
     @PutMapping("{id}")
     public ResponseEntity<UserDTO> updateUser(@RequestBody UserDTO userDTO,
-                                              @PathVariable("id") long userId) {
-        User user = userService.updateUser(userMapper.toEntity(userDTO), userId);
-        return new ResponseEntity<>(userMapper.toDto(user), HttpStatus.OK);
+                                              @PathVariable("id") long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              NativeWebRequest webRequest) {
+        Long expectedVersion = expectedVersion(ifMatch, userId);
+        User user = userService.updateUser(userMapper.toEntity(userDTO), userId, expectedVersion);
+        if (expectedVersion == null) {
+            // The new version is only known when the update was conditional
+            return new ResponseEntity<>(userMapper.toDto(user), HttpStatus.OK);
+        }
+        return ResponseEntity.ok().eTag(UserEtags.of(user, representation(webRequest))).body(userMapper.toDto(user));
+    }
+
+    @PatchMapping(value = "{id}", consumes = APPLICATION_MERGE_PATCH_JSON_VALUE)
+    public ResponseEntity<UserDTO> patchUser(@RequestBody ObjectNode patch,
+                                             @PathVariable("id") long userId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             NativeWebRequest webRequest) {
+        patch.remove("id");
+        User user = userService.patchUser(userId, expectedVersion(ifMatch, userId),
+                existingUser -> mergePatch(existingUser, patch));
+        return ResponseEntity.ok().eTag(UserEtags.of(user, representation(webRequest))).body(userMapper.toDto(user));
     }
 
     @DeleteMapping("{id}")
-    public ResponseEntity<String> deleteUser(@PathVariable("id") long userId) {
-        userService.deleteUser(userId);
+    public ResponseEntity<String> deleteUser(@PathVariable("id") long userId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        userService.deleteUser(userId, expectedVersion(ifMatch, userId));
         return new ResponseEntity<>("User has been deleted", HttpStatus.OK);
     }
+
+    /**
+     * The version an {@code If-Match} header requires; a list of several
+     * versions is narrowed to the one of the (possibly cached) current user.
+     */
+    private Long expectedVersion(String ifMatch, long userId) {
+        return UserEtags.expectedVersion(ifMatch, () -> userService.getUserById(userId).getVersion());
+    }
+
+    /**
+     * RFC 7396 merge of {@code patch} into the user: present members replace the
+     * current values, {@code null} members clear them. The result must still be a
+     * valid {@link UserDTO}.
+     */
+    private void mergePatch(User user, ObjectNode patch) {
+        UserDTO userDTO;
+        try {
+            userDTO = objectMapper.readerForUpdating(userMapper.toDto(user)).readValue(patch);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid merge patch", e, null);
+        }
+        List<String> errors = userDTOValidator.validate(userDTO);
+        if (!errors.isEmpty()) {
+            throw new UserValidationException(errors);
+        }
+        userMapper.copyToEntity(userDTO, user);
+    }
+
+    /**
+     * Format the body will be written in, picked the way content negotiation
+     * will pick it, so that the entity tag names it. Marks the response,
+     * a 304 included, as varying by {@code Accept}.
+     */
+    private MediaType representation(NativeWebRequest webRequest) {
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(webRequest));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Negotiation rejects the request itself once the handler returns
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (acceptable.isCompatibleWith(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private void writeLine(JsonGenerator generator, UserDTO userDTO) {
+        try {
+            exportWriter.writeValue(generator, userDTO);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> ResponseEntity<T> accepted(String path, String id, T job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(path)
+                .buildAndExpand(id)
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
 }
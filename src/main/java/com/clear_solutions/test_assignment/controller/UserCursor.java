@@ -0,0 +1,69 @@
+package com.clear_solutions.test_assignment.controller;
+
+import com.clear_solutions.test_assignment.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor handed out to clients: the sort key of the last row
+ * of a page, base64url encoded so clients do not depend on its layout.
+ */
+final class UserCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate birthDate;
+    private final long id;
+
+    private UserCursor(LocalDate birthDate, long id) {
+        this.birthDate = birthDate;
+        this.id = id;
+    }
+
+    static UserCursor first() {
+        return new UserCursor(null, 0L);
+    }
+
+    static UserCursor of(long id) {
+        return new UserCursor(null, id);
+    }
+
+    static UserCursor of(LocalDate birthDate, long id) {
+        return new UserCursor(birthDate, id);
+    }
+
+    static UserCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return first();
+        }
+        try {
+            String value = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return of(Long.parseLong(value));
+            }
+            return of(LocalDate.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+
+    String encode() {
+        String value = birthDate == null ? Long.toString(id) : birthDate + SEPARATOR + id;
+        return ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    LocalDate getBirthDate() {
+        return birthDate;
+    }
+
+    long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,116 @@
+package com.clear_solutions.test_assignment.controller;
+
+import com.clear_solutions.test_assignment.exception.PreconditionFailedException;
+import com.clear_solutions.test_assignment.model.User;
+import org.springframework.http.MediaType;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Entity tags derived from the user version column. A single user gets a
+ * strong tag holding its version; a list gets a weak tag hashed over the
+ * ids and versions of its rows, so it changes whenever any row does.
+ * <p>
+ * Tags name a representation: those of the default JSON one are bare, others
+ * end with their subtype, as in {@code "3-cbor"}, so a tag validated for one
+ * format never revalidates a cached body of another.
+ */
+final class UserEtags {
+
+    private static final String ANY = "*";
+
+    private UserEtags() {
+    }
+
+    static String of(User user) {
+        return of(user, MediaType.APPLICATION_JSON);
+    }
+
+    static String of(User user, MediaType representation) {
+        return "\"" + user.getVersion() + suffix(representation) + "\"";
+    }
+
+    static String of(List<User> users, MediaType representation) {
+        long hash = 1125899906842597L;
+        for (User user : users) {
+            hash = 31 * hash + user.getId();
+            hash = 31 * hash + user.getVersion();
+        }
+        return "W/\"" + Long.toHexString(hash) + "-" + users.size() + suffix(representation) + "\"";
+    }
+
+    /**
+     * The version an {@code If-Match} header requires. A list naming several
+     * versions is narrowed to the current one; the write must still be
+     * conditional on the returned version, since the user may change before it.
+     *
+     * @param currentVersion looks up the current version, only called for a list of several versions
+     * @return the required version, or {@code null} if the request is unconditional
+     */
+    static Long expectedVersion(String ifMatch, LongSupplier currentVersion) {
+        List<Long> versions = expectedVersions(ifMatch);
+        if (versions == null) {
+            return null;
+        }
+        return versions.size() == 1 ? versions.get(0) : matchingVersion(versions, currentVersion.getAsLong());
+    }
+
+    /**
+     * @return the distinct versions an {@code If-Match} header lists, or {@code null} if the request is unconditional
+     */
+    static List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            Long version = version(tag.trim());
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException("User has been modified");
+        }
+        return List.copyOf(versions);
+    }
+
+    /**
+     * @return {@code currentVersion} if it is one of the listed versions
+     */
+    static long matchingVersion(List<Long> versions, long currentVersion) {
+        if (!versions.contains(currentVersion)) {
+            throw new PreconditionFailedException("User has been modified");
+        }
+        return currentVersion;
+    }
+
+    /**
+     * @return the version a tag names, or {@code null} if it cannot match
+     */
+    private static Long version(String etag) {
+        // If-Match uses strong comparison, a weak or malformed tag never matches
+        if (etag.length() < 3 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            return null;
+        }
+        String version = etag.substring(1, etag.length() - 1);
+        // Any representation of the current version will do
+        int suffix = version.indexOf('-');
+        try {
+            return Long.parseLong(suffix < 0 ? version : version.substring(0, suffix));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String suffix(MediaType representation) {
+        if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(representation)) {
+            return "";
+        }
+        String subtype = representation.getSubtype();
+        return "-" + (subtype.startsWith("x-") ? subtype.substring(2) : subtype);
+    }
+}
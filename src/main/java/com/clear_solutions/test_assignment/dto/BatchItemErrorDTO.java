@@ -0,0 +1,20 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemErrorDTO {
+
+    /**
+     * Position of the rejected item in the submitted list.
+     */
+    private int index;
+
+    private List<String> errors;
+}
@@ -0,0 +1,19 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+
+    private int total;
+
+    private int created;
+
+    private List<BatchItemErrorDTO> failures;
+}
@@ -0,0 +1,17 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BirthMonthCountDTO {
+
+    private int year;
+
+    private int month;
+
+    private long count;
+}
@@ -0,0 +1,43 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkJobDTO {
+
+    private String id;
+
+    /**
+     * {@code DELETE} or {@code UPDATE}.
+     */
+    private String operation;
+
+    /**
+     * {@code RUNNING}, {@code SUCCEEDED} or {@code FAILED}.
+     */
+    private String status;
+
+    /**
+     * Ids handled by committed chunks so far.
+     */
+    private long processed;
+
+    /**
+     * Rows actually deleted or updated so far.
+     */
+    private long affected;
+
+    private int chunks;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+}
@@ -0,0 +1,34 @@
+package com.clear_solutions.test_assignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects users either by {@code ids} or by an exclusive birth-date range.
+ * {@code address} and {@code phoneNumber} are the changes of a bulk update,
+ * {@code null} leaves the field as it is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUserRequestDTO {
+
+    private List<Long> ids;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate fromDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate toDate;
+
+    private String address;
+
+    private Integer phoneNumber;
+}
@@ -0,0 +1,49 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDTO {
+
+    private String id;
+
+    private String file;
+
+    private String format;
+
+    /**
+     * {@code RUNNING}, {@code SUCCEEDED} or {@code FAILED}.
+     */
+    private String status;
+
+    private long bytesTotal;
+
+    /**
+     * Byte offset up to which every record has been committed or reported;
+     * a new import of the same file resumes from here.
+     */
+    private long committedOffset;
+
+    private long records;
+
+    private long created;
+
+    private long failed;
+
+    /**
+     * NDJSON file listing the rejected records with their line and errors.
+     */
+    private String errorReport;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRequestDTO {
+
+    /**
+     * File to import, relative to {@code user.import.directory}.
+     */
+    private String file;
+
+    /**
+     * {@code CSV} or {@code NDJSON}; derived from the file extension when absent.
+     */
+    private String format;
+}
@@ -0,0 +1,35 @@
+package com.clear_solutions.test_assignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeDTO {
+
+    /**
+     * Offset of the change; also sent as the event id, so reconnecting
+     * clients resume after it through {@code Last-Event-ID}.
+     */
+    private long id;
+
+    /**
+     * {@code CREATED}, {@code UPDATED} or {@code DELETED}.
+     */
+    private String type;
+
+    private long userId;
+
+    /**
+     * The user after the change, as stored in the outbox; {@code null} for deletions.
+     */
+    @JsonRawValue
+    private String user;
+
+    private Instant changedAt;
+}
@@ -0,0 +1,20 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDTO {
+
+    private List<UserDTO> items;
+
+    /**
+     * Opaque cursor to pass as {@code after} for the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
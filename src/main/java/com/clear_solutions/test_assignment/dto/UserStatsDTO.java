@@ -0,0 +1,29 @@
+package com.clear_solutions.test_assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDTO {
+
+    /**
+     * Day the ages were computed for.
+     */
+    private LocalDate asOf;
+
+    private long total;
+
+    /**
+     * User count per age bracket label, youngest bracket first.
+     */
+    private Map<String, Long> ageBrackets;
+
+    private List<BirthMonthCountDTO> birthMonths;
+}
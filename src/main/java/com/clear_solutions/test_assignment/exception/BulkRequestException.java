@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class BulkRequestException extends ClientErrorException {
+    public BulkRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.clear_solutions.test_assignment.exception;
+
+/**
+ * Base for exceptions that end in a 4xx response. They are thrown for every
+ * bad or unknown request, so no stack trace is captured for them.
+ */
+public abstract class ClientErrorException extends RuntimeException {
+
+    protected ClientErrorException(String message) {
+        super(message, null, false, false);
+    }
+}
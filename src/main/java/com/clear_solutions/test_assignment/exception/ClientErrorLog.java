@@ -0,0 +1,77 @@
+package com.clear_solutions.test_assignment.exception;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate-limited, stack-trace free logging for client errors. At most
+ * {@code limitPerSecond} lines are written per second; the rest are counted
+ * and reported as a single line by the first client error or {@link #flush()}
+ * after that second has ended.
+ */
+public class ClientErrorLog {
+
+    private static final long SECOND_NANOS = 1_000_000_000L;
+
+    private final LongSupplier nanoTime;
+    private final Logger logger;
+    private final int limitPerSecond;
+
+    private final AtomicLong currentSecond;
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    public ClientErrorLog(Logger logger, int limitPerSecond) {
+        this(System::nanoTime, logger, limitPerSecond);
+    }
+
+    /**
+     * @param nanoTime monotonic time in nanoseconds, from an arbitrary origin
+     */
+    public ClientErrorLog(LongSupplier nanoTime, Logger logger, int limitPerSecond) {
+        this.nanoTime = nanoTime;
+        this.logger = logger;
+        this.limitPerSecond = limitPerSecond;
+        this.currentSecond = new AtomicLong(nanoTime.getAsLong() / SECOND_NANOS);
+    }
+
+    public void warn(Throwable exception, String message) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        if (tryAcquire()) {
+            logger.warn("{}: {}", exception.getClass().getSimpleName(), message);
+        }
+    }
+
+    /**
+     * Reports the lines suppressed in a second that has ended, so that a burst
+     * followed by silence is reported too. Meant to be called about once a second.
+     */
+    public void flush() {
+        rollOver(nanoTime.getAsLong() / SECOND_NANOS);
+    }
+
+    private boolean tryAcquire() {
+        rollOver(nanoTime.getAsLong() / SECOND_NANOS);
+        if (logged.incrementAndGet() <= limitPerSecond) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    private void rollOver(long second) {
+        long previous = currentSecond.get();
+        if (second != previous && currentSecond.compareAndSet(previous, second)) {
+            logged.set(0);
+            int dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                logger.warn("Suppressed {} client error log lines", dropped);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class DuplicateEmailException extends ClientErrorException {
+
+    public DuplicateEmailException() {
+        super("Email is already registered");
+    }
+}
@@ -0,0 +1,33 @@
+package com.clear_solutions.test_assignment.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@code user.api.errors} counter per exception type answered by the
+ * exception handlers. Counters are resolved once per type and cached without
+ * locking, so counting stays cheap on hot error paths. Without a registry,
+ * as in test slices without metrics, nothing is counted.
+ */
+public class ErrorCounters {
+
+    private final ClassValue<Counter> counters;
+
+    public ErrorCounters(MeterRegistry meterRegistry) {
+        this.counters = meterRegistry == null ? null : new ClassValue<>() {
+            @Override
+            protected Counter computeValue(Class<?> type) {
+                return Counter.builder("user.api.errors")
+                        .description("Requests rejected by the exception handlers")
+                        .tag("exception", type.getSimpleName())
+                        .register(meterRegistry);
+            }
+        };
+    }
+
+    public void increment(Throwable exception) {
+        if (counters != null) {
+            counters.get(exception.getClass()).increment();
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.clear_solutions.test_assignment.exception;
 
 import com.clear_solutions.test_assignment.dto.ResponseMessageDto;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -15,28 +21,158 @@ public class GlobalExceptionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final ErrorCounters errorCounters;
+
+    private final ClientErrorLog clientErrorLog;
+
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> meterRegistry,
+                                  @Value("${user.errors.log-per-second:20}") int logPerSecond) {
+        this.errorCounters = new ErrorCounters(meterRegistry.getIfAvailable());
+        this.clientErrorLog = new ClientErrorLog(LOGGER, logPerSecond);
+    }
+
+    /**
+     * Reports client error lines suppressed in a past second even when no
+     * further client error arrives to do it.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void flushClientErrorLog() {
+        clientErrorLog.flush();
+    }
+
     @ExceptionHandler({UserInvalidAgeException.class})
     public ResponseEntity<ResponseMessageDto> handleUserInvalidAgeException(UserInvalidAgeException userInvalidAgeException) {
-        LOGGER.warn(userInvalidAgeException.getMessage(), userInvalidAgeException);
+        String message = userInvalidAgeException.getMessage();
+        clientErrorLog.warn(userInvalidAgeException, message);
+        errorCounters.increment(userInvalidAgeException);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
-                .body(new ResponseMessageDto(userInvalidAgeException.getMessage()));
+                .body(new ResponseMessageDto(message));
     }
 
     @ExceptionHandler({RangeDateException.class})
     public ResponseEntity<ResponseMessageDto> handleRangeDateException(RangeDateException rangeDateException) {
-        LOGGER.warn(rangeDateException.getMessage(), rangeDateException);
+        String message = rangeDateException.getMessage();
+        clientErrorLog.warn(rangeDateException, message);
+        errorCounters.increment(rangeDateException);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
-                .body(new ResponseMessageDto(rangeDateException.getMessage()));
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({BulkRequestException.class})
+    public ResponseEntity<ResponseMessageDto> handleBulkRequestException(BulkRequestException bulkRequestException) {
+        String message = bulkRequestException.getMessage();
+        clientErrorLog.warn(bulkRequestException, message);
+        errorCounters.increment(bulkRequestException);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({ImportRequestException.class})
+    public ResponseEntity<ResponseMessageDto> handleImportRequestException(ImportRequestException importRequestException) {
+        String message = importRequestException.getMessage();
+        clientErrorLog.warn(importRequestException, message);
+        errorCounters.increment(importRequestException);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({InvalidCursorException.class})
+    public ResponseEntity<ResponseMessageDto> handleInvalidCursorException(InvalidCursorException invalidCursorException) {
+        String message = invalidCursorException.getMessage();
+        clientErrorLog.warn(invalidCursorException, message);
+        errorCounters.increment(invalidCursorException);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({SearchPageException.class})
+    public ResponseEntity<ResponseMessageDto> handleSearchPageException(SearchPageException searchPageException) {
+        String message = searchPageException.getMessage();
+        clientErrorLog.warn(searchPageException, message);
+        errorCounters.increment(searchPageException);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({SearchQueryException.class})
+    public ResponseEntity<ResponseMessageDto> handleSearchQueryException(SearchQueryException searchQueryException) {
+        String message = searchQueryException.getMessage();
+        clientErrorLog.warn(searchQueryException, message);
+        errorCounters.increment(searchQueryException);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseMessageDto(message));
     }
 
     @ExceptionHandler({ResourceNotFoundException.class})
     public ResponseEntity<ResponseMessageDto> handleRangeDateException(ResourceNotFoundException resourceNotFoundException) {
-        LOGGER.warn(resourceNotFoundException.getMessage(), resourceNotFoundException);
+        String message = resourceNotFoundException.getMessage();
+        clientErrorLog.warn(resourceNotFoundException, message);
+        errorCounters.increment(resourceNotFoundException);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
-                .body(new ResponseMessageDto(resourceNotFoundException.getMessage()));
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({DuplicateEmailException.class})
+    public ResponseEntity<ResponseMessageDto> handleDuplicateEmailException(DuplicateEmailException duplicateEmailException) {
+        String message = duplicateEmailException.getMessage();
+        clientErrorLog.warn(duplicateEmailException, message);
+        errorCounters.increment(duplicateEmailException);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({PreconditionFailedException.class})
+    public ResponseEntity<ResponseMessageDto> handlePreconditionFailedException(PreconditionFailedException preconditionFailedException) {
+        String message = preconditionFailedException.getMessage();
+        clientErrorLog.warn(preconditionFailedException, message);
+        errorCounters.increment(preconditionFailedException);
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({RateLimitExceededException.class})
+    public ResponseEntity<ResponseMessageDto> handleRateLimitExceededException(RateLimitExceededException rateLimitExceededException) {
+        String message = rateLimitExceededException.getMessage();
+        clientErrorLog.warn(rateLimitExceededException, message);
+        errorCounters.increment(rateLimitExceededException);
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitExceededException.getRetryAfterSeconds()))
+                .body(new ResponseMessageDto(message));
+    }
+
+    /**
+     * Load is shed in bursts, so it goes through the rate-limited log as well.
+     */
+    @ExceptionHandler({ServiceOverloadedException.class})
+    public ResponseEntity<ResponseMessageDto> handleServiceOverloadedException(ServiceOverloadedException serviceOverloadedException) {
+        String message = serviceOverloadedException.getMessage();
+        clientErrorLog.warn(serviceOverloadedException, message);
+        errorCounters.increment(serviceOverloadedException);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ResponseMessageDto(message));
+    }
+
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    public ResponseEntity<ResponseMessageDto> handleOptimisticLockingFailureException(OptimisticLockingFailureException optimisticLockingFailureException) {
+        String message = optimisticLockingFailureException.getMessage();
+        clientErrorLog.warn(optimisticLockingFailureException, message);
+        errorCounters.increment(optimisticLockingFailureException);
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(new ResponseMessageDto("User has been modified"));
     }
 
 }
\ No newline at end of file
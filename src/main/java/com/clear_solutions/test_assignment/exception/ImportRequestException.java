@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class ImportRequestException extends ClientErrorException {
+    public ImportRequestException(String message) {
+        super(message);
+    }
+}
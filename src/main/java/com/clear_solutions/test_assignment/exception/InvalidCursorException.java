@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class InvalidCursorException extends ClientErrorException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class PreconditionFailedException extends ClientErrorException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
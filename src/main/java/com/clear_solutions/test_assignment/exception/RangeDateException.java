@@ -1,6 +1,6 @@
 package com.clear_solutions.test_assignment.exception;
 
-public class RangeDateException extends RuntimeException {
+public class RangeDateException extends ClientErrorException {
     public RangeDateException(String message) {
         super(message);
     }
@@ -0,0 +1,15 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class RateLimitExceededException extends ClientErrorException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
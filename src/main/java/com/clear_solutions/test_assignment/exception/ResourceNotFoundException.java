@@ -1,18 +1,26 @@
 package com.clear_solutions.test_assignment.exception;
 
-public class ResourceNotFoundException extends RuntimeException {
+public class ResourceNotFoundException extends ClientErrorException {
 
     private final String resourceName;
     private final String fieldName;
     private final Object fieldValue;
 
     public ResourceNotFoundException(String resourceName, String fieldName, Object fieldValue) {
-        super(String.format("%s not found with %s : '%s'", resourceName, fieldName, fieldValue));
+        super(null);
         this.resourceName = resourceName;
         this.fieldName = fieldName;
         this.fieldValue = fieldValue;
     }
 
+    /**
+     * Built on demand, most of these are only ever counted and rate-limited away.
+     */
+    @Override
+    public String getMessage() {
+        return resourceName + " not found with " + fieldName + " : '" + fieldValue + "'";
+    }
+
     public String getResourceName() {
         return resourceName;
     }
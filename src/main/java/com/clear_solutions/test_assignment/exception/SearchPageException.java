@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class SearchPageException extends ClientErrorException {
+    public SearchPageException(String message) {
+        super(message);
+    }
+}
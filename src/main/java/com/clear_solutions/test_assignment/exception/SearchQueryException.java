@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.exception;
+
+public class SearchQueryException extends ClientErrorException {
+    public SearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.clear_solutions.test_assignment.exception;
+
+/**
+ * Thrown for requests shed under load. Like client errors they come in
+ * bursts, so no stack trace is captured for them.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException() {
+        super("Service is overloaded", null, false, false);
+    }
+}
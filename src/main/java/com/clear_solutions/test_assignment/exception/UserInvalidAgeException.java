@@ -1,6 +1,6 @@
 package com.clear_solutions.test_assignment.exception;
 
-public class UserInvalidAgeException extends RuntimeException {
+public class UserInvalidAgeException extends ClientErrorException {
     public UserInvalidAgeException(String message) {
         super(message);
     }
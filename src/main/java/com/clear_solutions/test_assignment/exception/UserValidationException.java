@@ -0,0 +1,17 @@
+package com.clear_solutions.test_assignment.exception;
+
+import java.util.List;
+
+public class UserValidationException extends ClientErrorException {
+
+    private final List<String> errors;
+
+    public UserValidationException(List<String> errors) {
+        super("Invalid user");
+        this.errors = errors;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -2,6 +2,7 @@ package com.clear_solutions.test_assignment.mapper;
 
 import com.clear_solutions.test_assignment.dto.UserDTO;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserView;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,6 +20,18 @@ public class UserMapper implements EntityDtoMapper<User, UserDTO> {
                 .build();
     }
 
+    public UserDTO toDto(UserView user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .birthDate(user.getBirthDate())
+                .address(user.getAddress())
+                .phoneNumber(user.getPhoneNumber())
+                .build();
+    }
+
     public User toEntity(UserDTO userDTO) {
         return User.builder()
                 .id(userDTO.getId())
@@ -30,4 +43,16 @@ public class UserMapper implements EntityDtoMapper<User, UserDTO> {
                 .phoneNumber(userDTO.getPhoneNumber())
                 .build();
     }
+
+    /**
+     * Copies the mutable fields of {@code userDTO} onto {@code user}, leaving the id untouched.
+     */
+    public void copyToEntity(UserDTO userDTO, User user) {
+        user.setEmail(userDTO.getEmail());
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setBirthDate(userDTO.getBirthDate());
+        user.setAddress(userDTO.getAddress());
+        user.setPhoneNumber(userDTO.getPhoneNumber());
+    }
 }
@@ -0,0 +1,85 @@
+package com.clear_solutions.test_assignment.mapper;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link UserDTO} as the {@code User} message of {@code src/main/proto/user.proto}.
+ * The message is small and flat, so it is encoded straight from the DTO with
+ * the protobuf runtime rather than through a generated class, which would cost
+ * an extra object per element. Keep both in sync. As in proto3, fields holding
+ * their default value are left out.
+ */
+public final class UserProtobufEncoder {
+
+    private static final int ID = 1;
+    private static final int EMAIL = 2;
+    private static final int FIRST_NAME = 3;
+    private static final int LAST_NAME = 4;
+    private static final int BIRTH_DATE = 5;
+    private static final int ADDRESS = 6;
+    private static final int PHONE_NUMBER = 7;
+
+    private UserProtobufEncoder() {
+    }
+
+    public static void write(UserDTO user, CodedOutputStream output) throws IOException {
+        if (user.getId() != 0) {
+            output.writeInt64(ID, user.getId());
+        }
+        writeString(output, EMAIL, user.getEmail());
+        writeString(output, FIRST_NAME, user.getFirstName());
+        writeString(output, LAST_NAME, user.getLastName());
+        if (user.getBirthDate() != null && user.getBirthDate().toEpochDay() != 0) {
+            output.writeSInt32(BIRTH_DATE, Math.toIntExact(user.getBirthDate().toEpochDay()));
+        }
+        if (user.getAddress() != null) {
+            // Explicit presence: an empty address is still written
+            output.writeString(ADDRESS, user.getAddress());
+        }
+        if (user.getPhoneNumber() != 0) {
+            output.writeInt32(PHONE_NUMBER, user.getPhoneNumber());
+        }
+    }
+
+    /**
+     * Writes the message prefixed with its varint-encoded length, the framing
+     * {@code parseDelimitedFrom} reads.
+     */
+    public static void writeDelimited(UserDTO user, CodedOutputStream output) throws IOException {
+        output.writeUInt32NoTag(serializedSize(user));
+        write(user, output);
+    }
+
+    public static int serializedSize(UserDTO user) {
+        int size = 0;
+        if (user.getId() != 0) {
+            size += CodedOutputStream.computeInt64Size(ID, user.getId());
+        }
+        size += stringSize(EMAIL, user.getEmail());
+        size += stringSize(FIRST_NAME, user.getFirstName());
+        size += stringSize(LAST_NAME, user.getLastName());
+        if (user.getBirthDate() != null && user.getBirthDate().toEpochDay() != 0) {
+            size += CodedOutputStream.computeSInt32Size(BIRTH_DATE, Math.toIntExact(user.getBirthDate().toEpochDay()));
+        }
+        if (user.getAddress() != null) {
+            size += CodedOutputStream.computeStringSize(ADDRESS, user.getAddress());
+        }
+        if (user.getPhoneNumber() != 0) {
+            size += CodedOutputStream.computeInt32Size(PHONE_NUMBER, user.getPhoneNumber());
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream output, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+}
@@ -0,0 +1,45 @@
+package com.clear_solutions.test_assignment.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row recording one user mutation, written in the same transaction as
+ * the mutation itself. The auto-increment id is the offset consumers resume from.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_changes", indexes = {
+        @Index(name = "idx_user_changes_created_at", columnList = "created_at")
+})
+public class UserChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private UserChangeType type;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    /**
+     * The user as JSON after the change; {@code null} for deletions.
+     */
+    @Column(name = "payload", length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
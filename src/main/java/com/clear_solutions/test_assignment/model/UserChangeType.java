@@ -0,0 +1,7 @@
+package com.clear_solutions.test_assignment.model;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
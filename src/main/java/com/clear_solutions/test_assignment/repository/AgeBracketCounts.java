@@ -0,0 +1,17 @@
+package com.clear_solutions.test_assignment.repository;
+
+/**
+ * Row counts per age bracket, as computed by {@link UserRepository#countByAgeBracket}.
+ */
+public interface AgeBracketCounts {
+
+    long getMinors();
+
+    long getUnder30();
+
+    long getUnder45();
+
+    long getUnder65();
+
+    long getSeniors();
+}
@@ -0,0 +1,10 @@
+package com.clear_solutions.test_assignment.repository;
+
+public interface BirthMonthCount {
+
+    int getBirthYear();
+
+    int getBirthMonth();
+
+    long getCount();
+}
@@ -0,0 +1,211 @@
+package com.clear_solutions.test_assignment.repository;
+
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.model.UserChangeType;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking access to the {@code users} table for the reactive profile.
+ * {@link User} is a JPA entity, so the statements are written against
+ * {@link DatabaseClient} rather than a Spring Data R2DBC repository; they
+ * mirror the ones {@link UserRepository} generates. Result sets are streamed
+ * row by row and only as fast as the subscriber requests them.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveUserRepository {
+
+    private static final String COLUMNS =
+            "id, email, first_name, last_name, birth_date, address, phone_number, version";
+
+    private final DatabaseClient databaseClient;
+
+    private final TransactionalOperator idAllocation;
+
+    /**
+     * Current block of ids, shared with nothing else: other instances and the
+     * JPA side allocate their own blocks from {@code users_seq}.
+     */
+    private long nextId = 1;
+
+    private long lastId = 0;
+
+    @Autowired
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idAllocation = TransactionalOperator.create(
+                new R2dbcTransactionManager(databaseClient.getConnectionFactory()), definition);
+    }
+
+    public Flux<User> findAll() {
+        return databaseClient.sql("select " + COLUMNS + " from users order by id")
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    public Mono<User> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from users where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select 1 from users where id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Users born strictly between the given dates, served by the {@code idx_users_birth_date} index.
+     */
+    public Flux<User> findByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return databaseClient.sql("select " + COLUMNS + " from users"
+                        + " where birth_date > :fromDate and birth_date < :toDate")
+                .bind("fromDate", fromDate)
+                .bind("toDate", toDate)
+                .map(ReactiveUserRepository::toUser)
+                .all();
+    }
+
+    /**
+     * Inserts the user under a newly allocated id with version {@code 0}.
+     *
+     * @return the user carrying its id
+     */
+    public Mono<User> insert(User user) {
+        return nextId().flatMap(id -> bindUser(databaseClient.sql("insert into users (" + COLUMNS + ")"
+                        + " values (:id, :email, :firstName, :lastName, :birthDate, :address, :phoneNumber, 0)"), user)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then(Mono.fromSupplier(() -> {
+                    user.setId(id);
+                    user.setVersion(0);
+                    return user;
+                })));
+    }
+
+    /**
+     * Overwrites every column of the user and bumps its version. A non-null
+     * {@code version} makes the update conditional on it.
+     *
+     * @return number of updated rows, {@code 0} if there is no such user or the version did not match
+     */
+    public Mono<Long> updateById(long id, Long version, User user) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("update users set email = :email,"
+                + " first_name = :firstName, last_name = :lastName, birth_date = :birthDate,"
+                + " address = :address, phone_number = :phoneNumber, version = version + 1"
+                + " where id = :id" + (version == null ? "" : " and version = :version"));
+        spec = bindUser(spec, user).bind("id", id);
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * A non-null {@code version} makes the delete conditional on it.
+     *
+     * @return number of deleted rows, {@code 0} if there is no such user or the version did not match
+     */
+    public Mono<Long> deleteById(long id, Long version) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("delete from users where id = :id"
+                + (version == null ? "" : " and version = :version")).bind("id", id);
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Appends a change event to the {@code user_changes} outbox. Must run in the
+     * transaction making the change. {@code created_at} is written in UTC, the way
+     * Hibernate maps it when the dispatcher reads it back.
+     */
+    public Mono<Void> appendChange(UserChangeType type, long userId, String payload) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("insert into user_changes"
+                        + " (type, user_id, payload, created_at) values (:type, :userId, :payload, :createdAt)")
+                .bind("type", type.name())
+                .bind("userId", userId)
+                .bind("createdAt", LocalDateTime.now(ZoneOffset.UTC));
+        spec = payload == null ? spec.bindNull("payload", String.class) : spec.bind("payload", payload);
+        return spec.then();
+    }
+
+    /**
+     * Hands out ids the way Hibernate's pooled optimizer does for the
+     * {@code users_seq} table: each read of {@code next_val} reserves the block
+     * ending at the value read, so ids never collide with those the JPA side
+     * allocates. The table is read and advanced in a transaction of its own,
+     * keeping the row lock short.
+     */
+    private Mono<Long> nextId() {
+        synchronized (this) {
+            if (nextId <= lastId) {
+                return Mono.just(nextId++);
+            }
+        }
+        return databaseClient.sql("select next_val from users_seq for update")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("update users_seq set next_val = :nextValue")
+                        .bind("nextValue", value + User.ID_ALLOCATION_SIZE)
+                        .then()
+                        .thenReturn(value))
+                .as(idAllocation::transactional)
+                .map(this::allocate);
+    }
+
+    /**
+     * The first block of a fresh sequence would reach below {@code 1}; Hibernate
+     * treats it specially, here it is just cut short.
+     */
+    private synchronized long allocate(long blockEnd) {
+        long id = Math.max(1, blockEnd - User.ID_ALLOCATION_SIZE + 1);
+        nextId = id + 1;
+        lastId = blockEnd;
+        return id;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindUser(DatabaseClient.GenericExecuteSpec spec, User user) {
+        spec = spec.bind("email", user.getEmail())
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("birthDate", user.getBirthDate())
+                .bind("phoneNumber", user.getPhoneNumber());
+        return user.getAddress() == null ? spec.bindNull("address", String.class) : spec.bind("address", user.getAddress());
+    }
+
+    private static User toUser(Readable row) {
+        Integer phoneNumber = row.get("phone_number", Integer.class);
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .email(row.get("email", String.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .address(row.get("address", String.class))
+                .phoneNumber(phoneNumber == null ? 0 : phoneNumber)
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
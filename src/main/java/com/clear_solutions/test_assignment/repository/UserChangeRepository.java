@@ -0,0 +1,28 @@
+package com.clear_solutions.test_assignment.repository;
+
+import com.clear_solutions.test_assignment.model.UserChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    List<UserChange> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    @Query("select max(c.id) from UserChange c where c.createdAt < :cutoff")
+    Long findMaxIdCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("select min(c.id) from UserChange c")
+    Long findMinId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserChange c where c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -1,8 +1,152 @@
 package com.clear_solutions.test_assignment.repository;
 
 import com.clear_solutions.test_assignment.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
+
+    /**
+     * Users born strictly between the given dates, served by the
+     * {@code idx_users_birth_date} index. {@code type} is either {@link User}
+     * or a projection such as {@link UserView}.
+     */
+    <T> List<T> findByBirthDateAfterAndBirthDateBefore(LocalDate fromDate, LocalDate toDate, Class<T> type);
+
+    /**
+     * Keyset page over the primary key: the next {@code pageable.getPageSize()}
+     * users with an id greater than {@code afterId}.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+
+    /**
+     * Keyset page over {@code (birth_date, id)} inside an exclusive birth-date
+     * range. InnoDB secondary indexes carry the primary key, so
+     * {@code idx_users_birth_date} already covers the ordering.
+     */
+    @Query("select u from User u"
+            + " where u.birthDate > :fromDate and u.birthDate < :toDate"
+            + " and (u.birthDate > :afterBirthDate or (u.birthDate = :afterBirthDate and u.id > :afterId))"
+            + " order by u.birthDate, u.id")
+    List<User> findPageByBirthDateRange(@Param("fromDate") LocalDate fromDate,
+                                        @Param("toDate") LocalDate toDate,
+                                        @Param("afterBirthDate") LocalDate afterBirthDate,
+                                        @Param("afterId") long afterId,
+                                        Pageable pageable);
+
+    /**
+     * Forward-only scan of the whole table. Together with {@code useCursorFetch=true}
+     * on the JDBC url the MySQL driver reads rows through a server-side cursor
+     * in fetch-size chunks instead of buffering the whole result set. The stream
+     * must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<UserView> streamAllBy();
+
+    /**
+     * Overwrites every column of the user in a single statement and bumps its
+     * version. A non-null {@code version} makes the update conditional on it.
+     *
+     * @return number of updated rows, {@code 0} if there is no such user or the version did not match
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.email = :#{#user.email}, u.firstName = :#{#user.firstName},"
+            + " u.lastName = :#{#user.lastName}, u.birthDate = :#{#user.birthDate},"
+            + " u.address = :#{#user.address}, u.phoneNumber = :#{#user.phoneNumber},"
+            + " u.version = u.version + 1"
+            + " where u.id = :id and (:version is null or u.version = :version)")
+    int updateById(@Param("id") long id, @Param("version") Long version, @Param("user") User user);
+
+    /**
+     * A non-null {@code version} makes the delete conditional on it.
+     *
+     * @return number of deleted rows, {@code 0} if there is no such user or the version did not match
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("delete from User u where u.id = :id and (:version is null or u.version = :version)")
+    int deleteUserById(@Param("id") long id, @Param("version") Long version);
+
+    /**
+     * Those of the given ids that belong to a user, locked until the end of
+     * the transaction so they can be deleted before anyone else does.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u.id from User u where u.id in :ids order by u.id")
+    List<Long> findExistingIdsForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sets the address and phone number of the given users, a {@code null}
+     * argument keeps the current value.
+     */
+    @Modifying
+    @Query("update User u set u.address = coalesce(:address, u.address),"
+            + " u.phoneNumber = coalesce(:phoneNumber, u.phoneNumber),"
+            + " u.version = u.version + 1"
+            + " where u.id in :ids")
+    int updateContactByIdIn(@Param("ids") Collection<Long> ids,
+                            @Param("address") String address,
+                            @Param("phoneNumber") Integer phoneNumber);
+
+    /**
+     * Keyset page of the ids of users born strictly between the given dates.
+     */
+    @Query("select u.id from User u"
+            + " where u.birthDate > :fromDate and u.birthDate < :toDate and u.id > :afterId"
+            + " order by u.id")
+    List<Long> findIdsByBirthDateRange(@Param("fromDate") LocalDate fromDate,
+                                       @Param("toDate") LocalDate toDate,
+                                       @Param("afterId") long afterId,
+                                       Pageable pageable);
+
+    /**
+     * Point lookup through the {@code uk_users_email} unique index.
+     */
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Counts users per age bracket in a single pass. A user is at least N years
+     * old when born on or before the corresponding cutoff date, so the cutoffs
+     * must not increase; two equal cutoffs leave the bracket between them empty.
+     */
+    @Query("select"
+            + " coalesce(sum(case when u.birthDate > :adultCutoff then 1 else 0 end), 0) as minors,"
+            + " coalesce(sum(case when u.birthDate <= :adultCutoff and u.birthDate > :cutoff30 then 1 else 0 end), 0) as under30,"
+            + " coalesce(sum(case when u.birthDate <= :cutoff30 and u.birthDate > :cutoff45 then 1 else 0 end), 0) as under45,"
+            + " coalesce(sum(case when u.birthDate <= :cutoff45 and u.birthDate > :cutoff65 then 1 else 0 end), 0) as under65,"
+            + " coalesce(sum(case when u.birthDate <= :cutoff65 then 1 else 0 end), 0) as seniors"
+            + " from User u")
+    AgeBracketCounts countByAgeBracket(@Param("adultCutoff") LocalDate adultCutoff,
+                                       @Param("cutoff30") LocalDate cutoff30,
+                                       @Param("cutoff45") LocalDate cutoff45,
+                                       @Param("cutoff65") LocalDate cutoff65);
+
+    @Query("select year(u.birthDate) as birthYear, month(u.birthDate) as birthMonth, count(u) as count"
+            + " from User u"
+            + " group by year(u.birthDate), month(u.birthDate)"
+            + " order by year(u.birthDate), month(u.birthDate)")
+    List<BirthMonthCount> countByBirthMonth();
 }
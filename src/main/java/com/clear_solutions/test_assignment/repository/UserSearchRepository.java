@@ -0,0 +1,19 @@
+package com.clear_solutions.test_assignment.repository;
+
+import com.clear_solutions.test_assignment.model.User;
+
+import java.util.List;
+
+public interface UserSearchRepository {
+
+    /**
+     * Users where every token is a prefix of the email, first name or last
+     * name, best matches first. The longest token is answered by prefix
+     * ranges of the {@code uk_users_email}, {@code idx_users_first_name} and
+     * {@code idx_users_last_name} indexes, each read only up to a fixed
+     * number of entries, so a very common token ranks the first matches of
+     * each range rather than all of them. The other tokens only filter those
+     * entries, so a rare one does not widen the ranges.
+     */
+    List<User> search(List<String> tokens, int offset, int limit);
+}
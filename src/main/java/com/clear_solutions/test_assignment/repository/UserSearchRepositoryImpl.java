@@ -0,0 +1,170 @@
+package com.clear_solutions.test_assignment.repository;
+
+import com.clear_solutions.test_assignment.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ranks a match per token: an exact field value scores 4, a first or last
+ * name prefix 2 and an email prefix 1. Only plain {@code LIKE 'token%'}
+ * patterns are used so the B-tree indexes stay usable; case-insensitivity
+ * comes from the column collation.
+ * <p>
+ * Ordering all matches by rank would rank and sort every row a common token
+ * matches. Instead the longest token drives one prefix range scan per
+ * indexed column that selects ids only, read in index order and cut off
+ * after {@value #CANDIDATES_PER_COLUMN} entries. The other tokens are checked
+ * and the candidates ranked by a second query on those ids, so no more rows
+ * are read however rare the other tokens are; a match beyond the cut-off of
+ * every range is not found. The candidates are merged by rank here and only
+ * the users of the requested page are loaded. A value equal to the token
+ * sorts first in its range, so the cut-off drops longer completions before
+ * exact matches.
+ */
+class UserSearchRepositoryImpl implements UserSearchRepository {
+
+    static final int CANDIDATES_PER_COLUMN = 1000;
+
+    private static final List<String> INDEXED_COLUMNS = List.of("firstName", "lastName", "email");
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private static final Comparator<Map.Entry<Long, Integer>> BY_RANK =
+            Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final EntityManager entityManager;
+
+    UserSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<User> search(List<String> tokens, int offset, int limit) {
+        int driver = 0;
+        for (int i = 1; i < tokens.size(); i++) {
+            if (tokens.get(i).length() > tokens.get(driver).length()) {
+                driver = i;
+            }
+        }
+        String drivingPrefix = escapeLike(tokens.get(driver)) + "%";
+        Set<Long> candidateIds = new HashSet<>();
+        for (String column : INDEXED_COLUMNS) {
+            candidateIds.addAll(rangeIds(column, drivingPrefix));
+        }
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (Tuple candidate : rank(tokens, driver, candidateIds)) {
+            ranks.put(candidate.get(0, Long.class), ((Number) candidate.get(1)).intValue());
+        }
+        List<Long> ids = ranks.entrySet().stream()
+                .sorted(BY_RANK)
+                .skip(offset)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        return ids.isEmpty() ? List.of() : findAllInOrder(ids);
+    }
+
+    /**
+     * Ids of the first users in the {@code column} index range of the prefix;
+     * the index alone answers it.
+     */
+    private List<Long> rangeIds(String column, String prefix) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        Path<String> indexed = user.get(column);
+        query.select(user.get("id"))
+                .where(cb.like(indexed, prefix, LIKE_ESCAPE))
+                .orderBy(cb.asc(indexed), cb.asc(user.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(CANDIDATES_PER_COLUMN)
+                .getResultList();
+    }
+
+    /**
+     * Ids and ranks of those candidates that match every token.
+     */
+    private List<Tuple> rank(List<String> tokens, int driver, Collection<Long> candidateIds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<User> user = query.from(User.class);
+        Path<String> email = user.get("email");
+        Path<String> firstName = user.get("firstName");
+        Path<String> lastName = user.get("lastName");
+
+        List<Predicate> matches = new ArrayList<>(tokens.size());
+        matches.add(user.get("id").in(candidateIds));
+        Expression<Integer> rank = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            String prefix = escapeLike(token) + "%";
+            Predicate emailPrefix = cb.like(email, prefix, LIKE_ESCAPE);
+            Predicate namePrefix = cb.or(cb.like(firstName, prefix, LIKE_ESCAPE), cb.like(lastName, prefix, LIKE_ESCAPE));
+            // The candidates already match the driving token
+            if (i != driver) {
+                matches.add(cb.or(namePrefix, emailPrefix));
+            }
+
+            Expression<Integer> tokenRank = cb.<Integer>selectCase()
+                    .when(cb.or(cb.equal(firstName, token), cb.equal(lastName, token), cb.equal(email, token)), 4)
+                    .when(namePrefix, 2)
+                    .otherwise(1);
+            rank = rank == null ? tokenRank : cb.sum(rank, tokenRank);
+        }
+        query.multiselect(user.get("id"), rank)
+                .where(matches.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Users by id in the order given; ids deleted in the meantime are left out.
+     */
+    private List<User> findAllInOrder(List<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> user = query.from(User.class);
+        query.select(user).where(user.get("id").in(ids));
+        Map<Long, User> users = new HashMap<>();
+        for (User found : entityManager.createQuery(query).getResultList()) {
+            users.put(found.getId(), found);
+        }
+        List<User> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            User found = users.get(id);
+            if (found != null) {
+                ordered.add(found);
+            }
+        }
+        return ordered;
+    }
+
+    private static String escapeLike(String token) {
+        StringBuilder escaped = new StringBuilder(token.length() + 4);
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
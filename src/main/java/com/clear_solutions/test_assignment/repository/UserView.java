@@ -0,0 +1,25 @@
+package com.clear_solutions.test_assignment.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the {@code users} table. Rows are returned as plain
+ * tuples and never become managed entities, so large result sets do not grow
+ * the persistence context.
+ */
+public interface UserView {
+
+    long getId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDate getBirthDate();
+
+    String getAddress();
+
+    int getPhoneNumber();
+}
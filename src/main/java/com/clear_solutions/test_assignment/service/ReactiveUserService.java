@@ -0,0 +1,28 @@
+package com.clear_solutions.test_assignment.service;
+
+import com.clear_solutions.test_assignment.model.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking counterpart of {@link UserService} for the reactive profile.
+ * Queries return as soon as they are issued; rows are emitted as the caller
+ * requests them.
+ */
+public interface ReactiveUserService {
+
+    Mono<User> saveUser(User user);
+
+    Flux<User> getAllUsers();
+
+    Mono<User> getUserById(long id);
+
+    Mono<User> updateUser(User user, long id, Long expectedVersion);
+
+    Mono<Void> deleteUser(long id, Long expectedVersion);
+
+    Flux<User> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate);
+
+}
@@ -0,0 +1,12 @@
+package com.clear_solutions.test_assignment.service;
+
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+
+import java.util.List;
+
+public interface UserBatchService {
+
+    BatchResultDTO saveUsers(List<UserDTO> users);
+
+}
@@ -0,0 +1,14 @@
+package com.clear_solutions.test_assignment.service;
+
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+import com.clear_solutions.test_assignment.dto.BulkUserRequestDTO;
+
+public interface UserBulkService {
+
+    BulkJobDTO startDelete(BulkUserRequestDTO request);
+
+    BulkJobDTO startUpdate(BulkUserRequestDTO request);
+
+    BulkJobDTO getJob(String id);
+
+}
@@ -0,0 +1,14 @@
+package com.clear_solutions.test_assignment.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface UserChangeService {
+
+    /**
+     * Streams every change with an offset greater than {@code afterId} to the
+     * emitter, first catching up and then following new changes. An offset
+     * older than the retained changes is answered with a {@code RESET} event
+     * before the oldest change still kept.
+     */
+    void subscribe(SseEmitter emitter, long afterId);
+}
@@ -0,0 +1,12 @@
+package com.clear_solutions.test_assignment.service;
+
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+import com.clear_solutions.test_assignment.dto.ImportRequestDTO;
+
+public interface UserImportService {
+
+    ImportJobDTO startImport(ImportRequestDTO request);
+
+    ImportJobDTO getJob(String id);
+
+}
@@ -1,9 +1,13 @@
 package com.clear_solutions.test_assignment.service;
 
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserView;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public interface UserService {
 
@@ -11,14 +15,38 @@ public interface UserService {
 
     List<User> getAllUsers();
 
+    List<User> getUsersPage(long afterId, int limit);
+
+    void exportUsers(Consumer<UserView> consumer);
+
     User getUserById(long id);
 
-    User updateUser(User user, long id);
+    User getUserByEmail(String email);
+
+    boolean isEmailRegistered(String email);
+
+    User updateUser(User user, long id, Long expectedVersion);
+
+    User patchUser(long id, Long expectedVersion, Consumer<User> patch);
 
-    void deleteUser(long id);
+    void deleteUser(long id, Long expectedVersion);
 
     boolean isAdultUser(LocalDate userBirthDate);
 
+    /**
+     * {@link #isAdultUser} for checking many birth dates, all against the cutoff of the day it was obtained.
+     */
+    Predicate<LocalDate> adultUserPredicate();
+
     List<User> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate);
 
+    <T> List<T> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate, Class<T> type);
+
+    List<User> usersByBirthDateRangePage(LocalDate fromDate, LocalDate toDate,
+                                         LocalDate afterBirthDate, long afterId, int limit);
+
+    List<User> searchUsers(String query, int page, int size);
+
+    UserStatsDTO getUserStats();
+
 }
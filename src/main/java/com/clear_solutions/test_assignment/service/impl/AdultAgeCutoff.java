@@ -0,0 +1,85 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.config.UserAgeProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Predicate;
+
+/**
+ * Latest birth date of a user who is of age today, computed once per day of
+ * the {@link Clock}'s zone so the check itself is a single date comparison.
+ * Going by {@code today.minusYears(age)} matches {@code Period.between}: a
+ * user born on February 29 comes of age on March 1 in common years.
+ */
+@Component
+public class AdultAgeCutoff {
+
+    private final int adultAge;
+
+    private final Clock clock;
+
+    private volatile Cutoff cutoff;
+
+    public AdultAgeCutoff(UserAgeProperties userAgeProperties, Clock clock) {
+        this.adultAge = userAgeProperties.getAge();
+        this.clock = clock;
+    }
+
+    public int getAdultAge() {
+        return adultAge;
+    }
+
+    public boolean isAdult(LocalDate birthDate) {
+        return !birthDate.isAfter(latestBirthDate());
+    }
+
+    /**
+     * Checks many birth dates against the cutoff in force when it was created,
+     * so a batch is judged by one day even if it runs past midnight.
+     */
+    public Predicate<LocalDate> adults() {
+        LocalDate latestBirthDate = latestBirthDate();
+        return birthDate -> !birthDate.isAfter(latestBirthDate);
+    }
+
+    public LocalDate latestBirthDate() {
+        return current().latestBirthDate;
+    }
+
+    /**
+     * The day the cutoff is in force for.
+     */
+    public LocalDate today() {
+        return current().today;
+    }
+
+    private Cutoff current() {
+        Cutoff current = cutoff;
+        long now = clock.millis();
+        if (current == null || now < current.validFrom || now >= current.validUntil) {
+            current = compute(now);
+            // Racing threads compute the same value, whichever is kept does not matter
+            cutoff = current;
+        }
+        return current;
+    }
+
+    private Cutoff compute(long now) {
+        ZoneId zone = clock.getZone();
+        LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+        return new Cutoff(today, today.minusYears(adultAge),
+                today.atStartOfDay(zone).toInstant().toEpochMilli(),
+                today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    /**
+     * @param validFrom  start of the day the cutoff was computed for, in epoch millis
+     * @param validUntil start of the following day, in epoch millis
+     */
+    private record Cutoff(LocalDate today, LocalDate latestBirthDate, long validFrom, long validUntil) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of one bulk job. Written only by the thread running it and read
+ * by status requests, which see the last committed chunk.
+ */
+class BulkJob {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final String operation;
+
+    private final Instant startedAt = Instant.now();
+
+    private volatile String status = "RUNNING";
+
+    private volatile long processed;
+
+    private volatile long affected;
+
+    private volatile int chunks;
+
+    private volatile Instant finishedAt;
+
+    private volatile String error;
+
+    BulkJob(String operation) {
+        this.operation = operation;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    void chunkDone(int ids, int rows) {
+        processed += ids;
+        affected += rows;
+        chunks++;
+    }
+
+    void succeed() {
+        finishedAt = Instant.now();
+        status = "SUCCEEDED";
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = "FAILED";
+    }
+
+    BulkJobDTO toDto() {
+        return new BulkJobDTO(id, operation, status, processed, affected, chunks, startedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,119 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter over registered emails, so signup checks can answer
+ * "definitely not registered" without a query. It is filled once the
+ * application is ready and then fed by this instance's inserts and updates;
+ * until filled every email is reported as possibly registered. Emails written
+ * by other instances are missed, so a negative answer is a hint for the
+ * client, never a replacement for the {@code uk_users_email} constraint.
+ */
+@Component
+@ConditionalOnProperty(name = "user.email-bloom-filter.enabled", havingValue = "true")
+public class EmailBloomFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailBloomFilter.class);
+
+    private final UserRepository userRepository;
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    private volatile boolean loaded;
+
+    public EmailBloomFilter(UserRepository userRepository,
+                            @Value("${user.email-bloom-filter.expected-insertions}") long expectedInsertions,
+                            @Value("${user.email-bloom-filter.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact((optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long count = 0;
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            Iterator<String> iterator = emails.iterator();
+            while (iterator.hasNext()) {
+                add(iterator.next());
+                count++;
+            }
+        }
+        loaded = true;
+        LOGGER.info("Email Bloom filter loaded with {} emails, {} bits, {} hashes", count, bitCount, hashCount);
+    }
+
+    public void add(String email) {
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = bits.get(index);
+            while ((word & mask) == 0 && !bits.weakCompareAndSetVolatile(index, word, word | mask)) {
+                word = bits.get(index);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} only when the email is definitely not registered
+     */
+    public boolean mightContain(String email) {
+        if (!loaded) {
+            return true;
+        }
+        long hash = hash(email);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the lower-cased email followed by a MurmurHash3
+     * finalizer; emails compare case-insensitively in MySQL.
+     */
+    private static long hash(String email) {
+        String normalized = email.toLowerCase(Locale.ROOT);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < normalized.length(); i++) {
+            hash ^= normalized.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe1a11c53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,112 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Position of an import after its last committed batch, persisted next to
+ * the input file so an interrupted import resumes instead of starting over.
+ * It records the size and modification time of the file it was taken on and
+ * only applies while the file still has them.
+ */
+@Value
+class ImportCheckpoint {
+
+    static final ImportCheckpoint START = new ImportCheckpoint(0, 0, 0, 0, 0, 0, 0);
+
+    long fileSize;
+
+    /**
+     * Modification time of the file in milliseconds since the epoch.
+     */
+    long fileModified;
+
+    /**
+     * Byte offset right after the last handled record.
+     */
+    long offset;
+
+    /**
+     * Lines consumed up to {@link #offset}, blank and header lines included.
+     */
+    long lines;
+
+    long records;
+
+    long created;
+
+    long failed;
+
+    /**
+     * The start of a file of {@code fileSize} bytes last modified at {@code fileModified}.
+     */
+    static ImportCheckpoint start(long fileSize, long fileModified) {
+        return new ImportCheckpoint(fileSize, fileModified, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * The first data record of a file starts at {@code offset}, after {@code lines} header lines.
+     */
+    ImportCheckpoint skip(long offset, long lines) {
+        return new ImportCheckpoint(fileSize, fileModified, offset, lines, 0, 0, 0);
+    }
+
+    /**
+     * The checkpoint after a batch ending at {@code offset} and {@code lines}.
+     */
+    ImportCheckpoint advance(long offset, long lines, long batchRecords, long batchCreated, long batchFailed) {
+        return new ImportCheckpoint(fileSize, fileModified, offset, lines,
+                records + batchRecords, created + batchCreated, failed + batchFailed);
+    }
+
+    /**
+     * The checkpoint stored at {@code path}, or the start of the file when
+     * there is none or it was taken on a file of another size or modification time.
+     */
+    static ImportCheckpoint load(Path path, long fileSize, long fileModified) throws IOException {
+        if (!Files.exists(path)) {
+            return start(fileSize, fileModified);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        if (!Long.toString(fileSize).equals(properties.getProperty("fileSize"))
+                || !Long.toString(fileModified).equals(properties.getProperty("fileModified"))) {
+            return start(fileSize, fileModified);
+        }
+        return new ImportCheckpoint(fileSize, fileModified,
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("lines")),
+                Long.parseLong(properties.getProperty("records")),
+                Long.parseLong(properties.getProperty("created")),
+                Long.parseLong(properties.getProperty("failed")));
+    }
+
+    /**
+     * Replaces the checkpoint atomically, a crash leaves either the old or the new one.
+     */
+    void store(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("fileSize", Long.toString(fileSize));
+        properties.setProperty("fileModified", Long.toString(fileModified));
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("lines", Long.toString(lines));
+        properties.setProperty("records", Long.toString(records));
+        properties.setProperty("created", Long.toString(created));
+        properties.setProperty("failed", Long.toString(failed));
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
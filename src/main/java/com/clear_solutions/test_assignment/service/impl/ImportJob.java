@@ -0,0 +1,77 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of one import run. Written only by the thread running it and
+ * read by status requests.
+ */
+class ImportJob {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final String file;
+
+    private final String format;
+
+    private final String errorReport;
+
+    private final Instant startedAt = Instant.now();
+
+    private volatile String status = "RUNNING";
+
+    private volatile long bytesTotal;
+
+    private volatile ImportCheckpoint checkpoint = ImportCheckpoint.START;
+
+    private volatile Instant finishedAt;
+
+    private volatile String error;
+
+    ImportJob(String file, String format, String errorReport) {
+        this.file = file;
+        this.format = format;
+        this.errorReport = errorReport;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getFile() {
+        return file;
+    }
+
+    boolean isRunning() {
+        return finishedAt == null;
+    }
+
+    void start(long bytesTotal, ImportCheckpoint checkpoint) {
+        this.bytesTotal = bytesTotal;
+        this.checkpoint = checkpoint;
+    }
+
+    void committed(ImportCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    void succeed() {
+        finishedAt = Instant.now();
+        status = "SUCCEEDED";
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = "FAILED";
+    }
+
+    ImportJobDTO toDto() {
+        ImportCheckpoint current = checkpoint;
+        return new ImportJobDTO(id, file, format, status, bytesTotal, current.getOffset(), current.getRecords(),
+                current.getCreated(), current.getFailed(), errorReport, startedAt, finishedAt, error);
+    }
+}
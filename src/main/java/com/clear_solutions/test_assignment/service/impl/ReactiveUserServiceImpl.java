@@ -0,0 +1,125 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.PreconditionFailedException;
+import com.clear_solutions.test_assignment.exception.RangeDateException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.model.UserChangeType;
+import com.clear_solutions.test_assignment.repository.ReactiveUserRepository;
+import com.clear_solutions.test_assignment.service.ReactiveUserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Writes go through the same {@code user_changes} outbox as the servlet stack,
+ * in the transaction making the change, so change stream consumers see no
+ * difference between the two.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+
+    private final UserChangeLog userChangeLog;
+
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactiveUserServiceImpl(ReactiveUserRepository userRepository, UserChangeLog userChangeLog,
+                                   @Qualifier("reactiveTransactionalOperator") TransactionalOperator transactionalOperator) {
+        this.userRepository = userRepository;
+        this.userChangeLog = userChangeLog;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Override
+    public Mono<User> saveUser(User user) {
+        return userRepository.insert(user)
+                .flatMap(savedUser -> userRepository.appendChange(UserChangeType.CREATED, savedUser.getId(),
+                        userChangeLog.payload(savedUser)).thenReturn(savedUser))
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserServiceImpl::duplicateEmailOr);
+    }
+
+    @Override
+    public Flux<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    @Override
+    public Mono<User> getUserById(long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User", "Id", id)));
+    }
+
+    @Override
+    public Mono<User> updateUser(User user, long id, Long expectedVersion) {
+        return userRepository.updateById(id, expectedVersion, user)
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return notUpdated(id, expectedVersion);
+                    }
+                    user.setId(id);
+                    if (expectedVersion != null) {
+                        user.setVersion(expectedVersion + 1);
+                    }
+                    return userRepository.appendChange(UserChangeType.UPDATED, id, userChangeLog.payload(user))
+                            .thenReturn(user);
+                })
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserServiceImpl::duplicateEmailOr);
+    }
+
+    @Override
+    public Mono<Void> deleteUser(long id, Long expectedVersion) {
+        return userRepository.deleteById(id, expectedVersion)
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return notUpdated(id, expectedVersion);
+                    }
+                    return userRepository.appendChange(UserChangeType.DELETED, id, null);
+                })
+                .as(transactionalOperator::transactional)
+                .then();
+    }
+
+    @Override
+    public Flux<User> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            return Flux.error(new RangeDateException("Argument fromDate should be less then toDate"));
+        }
+        return userRepository.findByBirthDateRange(fromDate, toDate);
+    }
+
+    /**
+     * R2DBC drivers do not report the violated constraint separately, so it is
+     * looked up in the driver message instead.
+     */
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+    }
+
+    private static Throwable duplicateEmailOr(DataIntegrityViolationException e) {
+        return isDuplicateEmail(e) ? new DuplicateEmailException() : e;
+    }
+
+    private <T> Mono<T> notUpdated(long id, Long expectedVersion) {
+        Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : userRepository.existsById(id);
+        return exists.flatMap(found -> Mono.error(found
+                ? new PreconditionFailedException("User has been modified")
+                : new ResourceNotFoundException("User", "Id", id)));
+    }
+}
@@ -0,0 +1,156 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.BatchItemErrorDTO;
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+@Service
+@Timed(value = "user.service", description = "User service method latency")
+public class UserBatchServiceImpl implements UserBatchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserBatchServiceImpl.class);
+
+    @Value("${user.batch.size}")
+    private int batchSize;
+
+    private final UserService userService;
+
+    private final UserRepository userRepository;
+
+    private final UserMapper userMapper;
+
+    @Autowired(required = false)
+    private EmailBloomFilter emailBloomFilter;
+
+    private final UserDTOValidator userDTOValidator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityManager entityManager;
+
+    private final UserChangeLog userChangeLog;
+
+    @Autowired
+    public UserBatchServiceImpl(UserService userService, UserRepository userRepository, UserMapper userMapper,
+                                UserDTOValidator userDTOValidator, TransactionTemplate transactionTemplate,
+                                EntityManager entityManager, UserChangeLog userChangeLog) {
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.userDTOValidator = userDTOValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.userChangeLog = userChangeLog;
+    }
+
+    @Override
+    public BatchResultDTO saveUsers(List<UserDTO> users) {
+        List<BatchItemErrorDTO> failures = new ArrayList<>();
+        List<UserDTO> chunk = new ArrayList<>(Math.min(batchSize, users.size()));
+        List<Integer> chunkIndexes = new ArrayList<>(Math.min(batchSize, users.size()));
+        Predicate<LocalDate> adult = userService.adultUserPredicate();
+        int created = 0;
+        for (int index = 0; index < users.size(); index++) {
+            UserDTO userDTO = users.get(index);
+            List<String> errors = validate(userDTO, adult);
+            if (!errors.isEmpty()) {
+                failures.add(new BatchItemErrorDTO(index, errors));
+                continue;
+            }
+            chunk.add(userDTO);
+            chunkIndexes.add(index);
+            if (chunk.size() == batchSize) {
+                created += insertChunk(chunk, chunkIndexes, failures);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += insertChunk(chunk, chunkIndexes, failures);
+        }
+        return new BatchResultDTO(users.size(), created, failures);
+    }
+
+    private List<String> validate(UserDTO userDTO, Predicate<LocalDate> adult) {
+        if (userDTO == null) {
+            return List.of("User cannot be null");
+        }
+        List<String> errors = userDTOValidator.validate(userDTO);
+        if (errors.isEmpty() && !adult.test(userDTO.getBirthDate())) {
+            errors.add("Invalid user age");
+        }
+        return errors;
+    }
+
+    /**
+     * Inserts the chunk in one transaction. If the chunk is rejected, its users
+     * are retried one by one so a single bad row only fails itself.
+     */
+    private int insertChunk(List<UserDTO> chunk, List<Integer> chunkIndexes, List<BatchItemErrorDTO> failures) {
+        try {
+            insertAll(chunk);
+            return chunk.size();
+        } catch (DataAccessException | TransactionException e) {
+            LOGGER.warn("Batch of {} users was rejected, retrying one by one", chunk.size(), e);
+        }
+        int created = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                insertAll(List.of(chunk.get(i)));
+                created++;
+            } catch (DataIntegrityViolationException e) {
+                String error = UserServiceImpl.isDuplicateEmail(e) ? "Email is already registered" : "User could not be saved";
+                failures.add(new BatchItemErrorDTO(chunkIndexes.get(i), List.of(error)));
+            } catch (DataAccessException | TransactionException e) {
+                failures.add(new BatchItemErrorDTO(chunkIndexes.get(i), List.of("User could not be saved")));
+            }
+        }
+        return created;
+    }
+
+    private void insertAll(List<UserDTO> userDTOs) {
+        List<User> users = new ArrayList<>(userDTOs.size());
+        for (UserDTO userDTO : userDTOs) {
+            User user = userMapper.toEntity(userDTO);
+            user.setId(0L);
+            users.add(user);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+                userChangeLog.created(users);
+            });
+            if (emailBloomFilter != null) {
+                for (User user : users) {
+                    emailBloomFilter.add(user.getEmail());
+                }
+            }
+        } finally {
+            // A persistence context opened by the caller outlives the transaction
+            entityManager.clear();
+        }
+    }
+}
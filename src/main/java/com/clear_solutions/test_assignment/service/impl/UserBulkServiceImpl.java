@@ -0,0 +1,167 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.config.CacheConfig;
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+import com.clear_solutions.test_assignment.dto.BulkUserRequestDTO;
+import com.clear_solutions.test_assignment.exception.BulkRequestException;
+import com.clear_solutions.test_assignment.exception.RangeDateException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserBulkService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs bulk deletes and updates as background jobs. The selected ids are
+ * processed in chunks of {@code user.bulk.chunk-size}, each chunk being one
+ * set-based statement in its own transaction, so a failure only rolls back
+ * the current chunk and the job reports how far it got.
+ */
+@Service
+@Timed(value = "user.service", description = "User service method latency")
+public class UserBulkServiceImpl implements UserBulkService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserBulkServiceImpl.class);
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor taskExecutor;
+
+    private final CacheManager cacheManager;
+
+    private final UserChangeLog userChangeLog;
+
+    private final Cache<String, BulkJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    @Value("${user.bulk.chunk-size}")
+    private int chunkSize;
+
+    @Autowired
+    public UserBulkServiceImpl(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               CacheManager cacheManager, UserChangeLog userChangeLog) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.cacheManager = cacheManager;
+        this.userChangeLog = userChangeLog;
+    }
+
+    @Override
+    public BulkJobDTO startDelete(BulkUserRequestDTO request) {
+        checkSelection(request);
+        return start("DELETE", request, ids -> {
+            // Only ids that were there get a change event
+            List<Long> existing = userRepository.findExistingIdsForUpdate(ids);
+            if (existing.isEmpty()) {
+                return 0;
+            }
+            int rows = userRepository.deleteByIdIn(existing);
+            userChangeLog.deleted(existing);
+            return rows;
+        });
+    }
+
+    @Override
+    public BulkJobDTO startUpdate(BulkUserRequestDTO request) {
+        checkSelection(request);
+        if (request.getAddress() == null && request.getPhoneNumber() == null) {
+            throw new BulkRequestException("Nothing to update");
+        }
+        return start("UPDATE", request, ids -> {
+            int rows = userRepository.updateContactByIdIn(ids, request.getAddress(), request.getPhoneNumber());
+            // Re-read the chunk so the change events carry the stored values
+            userChangeLog.updated(userRepository.findAllById(ids));
+            return rows;
+        });
+    }
+
+    @Override
+    public BulkJobDTO getJob(String id) {
+        BulkJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Bulk job", "Id", id);
+        }
+        return job.toDto();
+    }
+
+    private BulkJobDTO start(String operation, BulkUserRequestDTO request, ToIntFunction<List<Long>> statement) {
+        BulkJob job = new BulkJob(operation);
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> run(job, request, statement));
+        return job.toDto();
+    }
+
+    private void run(BulkJob job, BulkUserRequestDTO request, ToIntFunction<List<Long>> statement) {
+        try {
+            if (request.getIds() != null) {
+                List<Long> ids = request.getIds();
+                for (int from = 0; from < ids.size(); from += chunkSize) {
+                    runChunk(job, ids.subList(from, Math.min(from + chunkSize, ids.size())), statement);
+                }
+            } else {
+                // Deleted and updated rows keep their place in id order, so paging by id never revisits them
+                long afterId = 0;
+                List<Long> ids;
+                do {
+                    ids = userRepository.findIdsByBirthDateRange(request.getFromDate(), request.getToDate(),
+                            afterId, PageRequest.ofSize(chunkSize));
+                    if (!ids.isEmpty()) {
+                        runChunk(job, ids, statement);
+                        afterId = ids.get(ids.size() - 1);
+                    }
+                } while (ids.size() == chunkSize);
+            }
+            job.succeed();
+        } catch (RuntimeException e) {
+            LOGGER.error("Bulk job {} failed", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void runChunk(BulkJob job, List<Long> ids, ToIntFunction<List<Long>> statement) {
+        Integer rows = transactionTemplate.execute(status -> statement.applyAsInt(ids));
+        org.springframework.cache.Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (users != null) {
+            for (Long id : ids) {
+                users.evict(id);
+            }
+        }
+        job.chunkDone(ids.size(), rows == null ? 0 : rows);
+    }
+
+    private void checkSelection(BulkUserRequestDTO request) {
+        boolean byRange = request.getFromDate() != null || request.getToDate() != null;
+        if ((request.getIds() == null) == !byRange) {
+            throw new BulkRequestException("Either ids or fromDate and toDate must be given");
+        }
+        if (byRange) {
+            if (request.getFromDate() == null || request.getToDate() == null) {
+                throw new BulkRequestException("Either ids or fromDate and toDate must be given");
+            }
+            if (request.getFromDate().isAfter(request.getToDate())) {
+                throw new RangeDateException("Argument fromDate should be less then toDate");
+            }
+        }
+    }
+}
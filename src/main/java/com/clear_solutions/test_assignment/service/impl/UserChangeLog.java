@@ -0,0 +1,107 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.model.UserChangeType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Appends change events to the {@code user_changes} outbox. Must be called
+ * inside the transaction making the change, so the events commit or roll back
+ * with it. Rows go through one JDBC batch per call; the auto-increment ids
+ * rule out Hibernate's insert batching.
+ */
+@Component
+public class UserChangeLog {
+
+    private static final String INSERT_SQL =
+            "insert into user_changes (type, user_id, payload, created_at) values (?, ?, ?, ?)";
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UserMapper userMapper;
+
+    private final ObjectWriter payloadWriter;
+
+    @Autowired
+    public UserChangeLog(JdbcTemplate jdbcTemplate, UserMapper userMapper, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userMapper = userMapper;
+        this.payloadWriter = objectMapper.writerFor(UserDTO.class);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(Collection<User> users) {
+        write(UserChangeType.CREATED, users);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Collection<User> users) {
+        write(UserChangeType.UPDATED, users);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(Collection<Long> userIds) {
+        List<Row> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(new Row(userId, null));
+        }
+        insert(UserChangeType.DELETED, rows);
+    }
+
+    private void write(UserChangeType type, Collection<User> users) {
+        List<Row> rows = new ArrayList<>(users.size());
+        for (User user : users) {
+            rows.add(new Row(user.getId(), payload(user)));
+        }
+        insert(type, rows);
+    }
+
+    /**
+     * Binds {@code created_at} in UTC, the way Hibernate maps {@link Instant} when reading it back.
+     */
+    private void insert(UserChangeType type, List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(1, type.name());
+            statement.setLong(2, row.userId());
+            statement.setString(3, row.payload());
+            statement.setTimestamp(4, now, Calendar.getInstance(UTC));
+        });
+    }
+
+    /**
+     * The user as it appears in a change event, also used by the reactive write path.
+     */
+    String payload(User user) {
+        try {
+            return payloadWriter.writeValueAsString(userMapper.toDto(user));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("User " + user.getId() + " could not be serialized", e);
+        }
+    }
+
+    private record Row(long userId, String payload) {
+    }
+}
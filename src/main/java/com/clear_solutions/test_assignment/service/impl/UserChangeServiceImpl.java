@@ -0,0 +1,423 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.UserChangeDTO;
+import com.clear_solutions.test_assignment.model.UserChange;
+import com.clear_solutions.test_assignment.repository.UserChangeRepository;
+import com.clear_solutions.test_assignment.service.UserChangeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers outbox changes to the SSE subscribers of this instance. Every poll
+ * reads one batch after the slowest subscriber's offset and hands each
+ * subscriber the part it has not seen yet, so idle streams cost one indexed
+ * query per poll regardless of how many clients are connected.
+ * <p>
+ * Writing to a client blocks while its connection is congested, so the
+ * dispatcher only queues events; a task on the application executor sends
+ * them, one at a time per subscriber. A subscriber whose queue holds
+ * {@code user.changes.send-queue-size} events is left out of the reads until
+ * it has drained, so a slow client neither delays the others nor piles up
+ * memory.
+ * <p>
+ * Auto-increment ids are assigned at insert but become visible at commit, so
+ * a missing id may belong to a transaction that is still running. Changes
+ * after such a gap are held back until the gap is older than
+ * {@code user.changes.gap-timeout}. The missing ids are then skipped but
+ * looked up again on every poll for {@code user.changes.late-commit-window},
+ * and a change that commits late is sent to the subscribers that passed it.
+ * Skipped ids are counted in {@code user.changes.gaps} by outcome: most are
+ * rolled back inserts or ids MySQL reserved and never used, which expire.
+ * <p>
+ * Ids below the oldest change kept after {@code user.changes.retention} were
+ * purged rather than left uncommitted. A subscriber whose offset is below them
+ * gets a {@code RESET} event carrying the offset it continues from, telling it
+ * to reload the users before applying further changes.
+ */
+@Service
+public class UserChangeServiceImpl implements UserChangeService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserChangeServiceImpl.class);
+
+    private static final int MAX_SKIPPED_IDS = 10_000;
+
+    private final UserChangeRepository userChangeRepository;
+
+    private final TaskExecutor taskExecutor;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The lowest id that may still be in the outbox, {@code 0} until the first purge.
+     */
+    private volatile long retainedFrom;
+
+    /**
+     * Skipped ids and when they were skipped; only touched by the dispatching thread.
+     */
+    private final NavigableMap<Long, Instant> skippedIds = new TreeMap<>();
+
+    private final Counter skippedCounter;
+
+    private final Counter lateCounter;
+
+    private final Counter expiredCounter;
+
+    @Value("${user.changes.batch-size}")
+    private int batchSize;
+
+    @Value("${user.changes.send-queue-size}")
+    private int sendQueueSize;
+
+    @Value("${user.changes.gap-timeout}")
+    private Duration gapTimeout;
+
+    @Value("${user.changes.late-commit-window}")
+    private Duration lateCommitWindow;
+
+    @Value("${user.changes.heartbeat}")
+    private Duration heartbeat;
+
+    @Value("${user.changes.retention}")
+    private Duration retention;
+
+    @Autowired
+    public UserChangeServiceImpl(UserChangeRepository userChangeRepository,
+                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.userChangeRepository = userChangeRepository;
+        this.taskExecutor = taskExecutor;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.skippedCounter = gapCounter(registry, "skipped");
+        this.lateCounter = gapCounter(registry, "late");
+        this.expiredCounter = gapCounter(registry, "expired");
+    }
+
+    @Override
+    public void subscribe(SseEmitter emitter, long afterId) {
+        Subscriber subscriber = new Subscriber(emitter, afterId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+    }
+
+    @Scheduled(fixedDelayString = "${user.changes.poll-interval-ms}")
+    public void dispatch() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        long retainedFrom = this.retainedFrom;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.lastId < retainedFrom - 1 && send(subscriber, reset(retainedFrom - 1), now)) {
+                subscriber.lastId = retainedFrom - 1;
+            }
+        }
+        dispatchLateCommits(retainedFrom, now);
+        List<UserChange> batch;
+        do {
+            long from = Long.MAX_VALUE;
+            for (Subscriber subscriber : subscribers) {
+                if (hasRoom(subscriber)) {
+                    from = Math.min(from, subscriber.lastId);
+                }
+            }
+            if (from == Long.MAX_VALUE) {
+                return;
+            }
+            batch = userChangeRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.ofSize(batchSize));
+            List<UserChange> visible = committedPrefix(batch, from, now);
+            if (visible.isEmpty()) {
+                break;
+            }
+            List<UserChangeDTO> changes = new ArrayList<>(visible.size());
+            for (UserChange change : visible) {
+                changes.add(toDto(change));
+            }
+            for (Subscriber subscriber : subscribers) {
+                send(subscriber, changes, now);
+            }
+            if (visible.size() < batch.size()) {
+                break;
+            }
+        } while (batch.size() == batchSize);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.lastSentAt.plus(heartbeat).isBefore(now)) {
+                send(subscriber, SseEmitter.event().comment("keep-alive"), now);
+            }
+        }
+    }
+
+    /**
+     * Deletes the changes older than the retention and moves {@link #retainedFrom}
+     * past them. After a restart the changes purged earlier are already gone, so
+     * the first run starts from the oldest change left.
+     */
+    @Scheduled(fixedDelayString = "${user.changes.purge-interval-ms}")
+    public void purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        Long purgedThrough = userChangeRepository.findMaxIdCreatedBefore(cutoff);
+        int deleted = userChangeRepository.deleteCreatedBefore(cutoff);
+        if (deleted > 0) {
+            LOGGER.info("Purged {} user changes older than {}", deleted, retention);
+        }
+        if (purgedThrough != null) {
+            // A change created at the cutoff may have a lower id than one created just before it
+            Long oldestId = userChangeRepository.findMinId();
+            retainedFrom = Math.max(retainedFrom,
+                    oldestId == null ? purgedThrough + 1 : Math.min(oldestId, purgedThrough + 1));
+        } else if (retainedFrom == 0) {
+            Long oldestId = userChangeRepository.findMinId();
+            if (oldestId != null) {
+                retainedFrom = oldestId;
+            }
+        }
+    }
+
+    /**
+     * The changes up to the first gap in the id sequence that may still be filled by a running transaction.
+     * Older gaps are passed and their ids remembered for {@link #dispatchLateCommits}.
+     */
+    private List<UserChange> committedPrefix(List<UserChange> batch, long afterId, Instant now) {
+        Instant gapCutoff = now.minus(gapTimeout);
+        long expected = afterId + 1;
+        for (int i = 0; i < batch.size(); i++) {
+            UserChange change = batch.get(i);
+            if (change.getId() != expected) {
+                if (change.getCreatedAt().isAfter(gapCutoff)) {
+                    return batch.subList(0, i);
+                }
+                skip(expected, change.getId(), now);
+            }
+            expected = change.getId() + 1;
+        }
+        return batch;
+    }
+
+    /**
+     * Remembers the ids from {@code from} up to {@code to}, exclusive. Ids are
+     * only skipped once: a subscriber starting behind them passes the same
+     * gap again.
+     */
+    private void skip(long from, long to, Instant now) {
+        int added = 0;
+        for (long id = from; id < to && skippedIds.size() < MAX_SKIPPED_IDS; id++) {
+            if (skippedIds.putIfAbsent(id, now) == null) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            LOGGER.warn("Skipping user change ids {}-{} not committed after {}", from, to - 1, gapTimeout);
+            increment(skippedCounter, added);
+        }
+        if (to - from > added && skippedIds.size() >= MAX_SKIPPED_IDS) {
+            LOGGER.warn("Not re-checking user change ids {}-{}, {} ids are already awaited", from, to - 1, MAX_SKIPPED_IDS);
+        }
+    }
+
+    /**
+     * Sends the skipped changes that have been committed since to the
+     * subscribers that are already past them, out of id order; subscribers
+     * still behind them get them in order from the regular scan.
+     */
+    private void dispatchLateCommits(long retainedFrom, Instant now) {
+        // Purged ids cannot commit any more
+        skippedIds.headMap(retainedFrom).clear();
+        Instant expiry = now.minus(lateCommitWindow);
+        int expired = 0;
+        for (Iterator<Instant> skippedAt = skippedIds.values().iterator(); skippedAt.hasNext(); ) {
+            if (skippedAt.next().isBefore(expiry)) {
+                skippedAt.remove();
+                expired++;
+            }
+        }
+        increment(expiredCounter, expired);
+        if (skippedIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(Math.min(skippedIds.size(), batchSize));
+        for (Map.Entry<Long, Instant> skipped : skippedIds.entrySet()) {
+            if (ids.size() == batchSize) {
+                break;
+            }
+            ids.add(skipped.getKey());
+        }
+        List<UserChange> late = new ArrayList<>(userChangeRepository.findAllById(ids));
+        if (late.isEmpty()) {
+            return;
+        }
+        late.sort(Comparator.comparingLong(UserChange::getId));
+        LOGGER.warn("Sending {} user changes committed after their ids were skipped", late.size());
+        increment(lateCounter, late.size());
+        for (UserChange change : late) {
+            skippedIds.remove(change.getId());
+            UserChangeDTO dto = toDto(change);
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.lastId > change.getId()) {
+                    send(subscriber, event(dto), now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the changes after the subscriber's offset while its queue has room;
+     * the rest are read again once it has drained.
+     */
+    private void send(Subscriber subscriber, List<UserChangeDTO> changes, Instant now) {
+        for (UserChangeDTO change : changes) {
+            if (change.getId() > subscriber.lastId) {
+                if (!hasRoom(subscriber) || !send(subscriber, event(change), now)) {
+                    return;
+                }
+                subscriber.lastId = change.getId();
+            }
+        }
+    }
+
+    /**
+     * Queues the event and starts sending the queue unless that is already
+     * under way; {@code false} if the subscriber has gone away.
+     */
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event, Instant now) {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return false;
+            }
+            subscriber.pending.add(event);
+            subscriber.lastSentAt = now;
+            if (subscriber.draining) {
+                return true;
+            }
+            subscriber.draining = true;
+        }
+        taskExecutor.execute(() -> drain(subscriber));
+        return true;
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            synchronized (subscriber) {
+                event = subscriber.pending.poll();
+                if (event == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+            }
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the emitter's error callback completes the request
+                synchronized (subscriber) {
+                    subscriber.closed = true;
+                    subscriber.pending.clear();
+                    subscriber.draining = false;
+                }
+                subscribers.remove(subscriber);
+                return;
+            }
+        }
+    }
+
+    private boolean hasRoom(Subscriber subscriber) {
+        synchronized (subscriber) {
+            return subscriber.pending.size() < sendQueueSize;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(UserChangeDTO change) {
+        return SseEmitter.event()
+                .id(Long.toString(change.getId()))
+                .name(change.getType())
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private static SseEmitter.SseEventBuilder reset(long afterId) {
+        return SseEmitter.event()
+                .id(Long.toString(afterId))
+                .name("RESET")
+                .data(Map.of("after", afterId), MediaType.APPLICATION_JSON);
+    }
+
+    private static Counter gapCounter(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry == null ? null : Counter.builder("user.changes.gaps")
+                .description("Change ids skipped by the dispatcher while uncommitted, by what became of them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static void increment(Counter counter, int amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+
+    private static UserChangeDTO toDto(UserChange change) {
+        return new UserChangeDTO(change.getId(), change.getType().name(), change.getUserId(),
+                change.getPayload(), change.getCreatedAt());
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        /**
+         * Events not sent yet; guarded by the subscriber, like {@link #draining} and {@link #closed}.
+         */
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+
+        /**
+         * Offset of the last change queued; only touched by the dispatching thread.
+         */
+        private long lastId;
+
+        /**
+         * When an event was last queued; only touched by the dispatching thread.
+         */
+        private Instant lastSentAt = Instant.now();
+
+        /**
+         * Whether a task is sending the queue.
+         */
+        private boolean draining;
+
+        /**
+         * Set once a send failed; nothing is queued after that.
+         */
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, long lastId) {
+            this.emitter = emitter;
+            this.lastId = lastId;
+        }
+    }
+}
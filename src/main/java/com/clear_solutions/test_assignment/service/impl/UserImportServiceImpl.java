@@ -0,0 +1,397 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.BatchItemErrorDTO;
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+import com.clear_solutions.test_assignment.dto.ImportRequestDTO;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.exception.ImportRequestException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Imports users from CSV or NDJSON files as background jobs. The file is
+ * memory-mapped window by window; each window is cut at line boundaries into
+ * slices parsed in parallel, then written in order through
+ * {@link UserBatchService} one {@code user.batch.size} batch at a time. After
+ * every batch the rejected records are appended to
+ * {@code <file>.errors.ndjson} and the position is saved to
+ * {@code <file>.checkpoint}, where the next import of the same file resumes
+ * as long as its size and modification time are unchanged. The checkpoint is
+ * removed once the import succeeds, so a later import of the file starts
+ * over and replaces the error report.
+ */
+@Service
+@Timed(value = "user.service", description = "User service method latency")
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private static final String ERROR_REPORT_SUFFIX = ".errors.ndjson";
+
+    private static final int MIN_SLICE_SIZE = 1 << 20;
+
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final UserBatchService userBatchService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TaskExecutor taskExecutor;
+
+    private final Cache<String, ImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    @Value("${user.import.directory}")
+    private String directory;
+
+    @Value("${user.import.window-size}")
+    private DataSize windowSize;
+
+    @Value("${user.import.parallelism}")
+    private int parallelism;
+
+    @Value("${user.batch.size}")
+    private int batchSize;
+
+    @Autowired
+    public UserImportServiceImpl(UserBatchService userBatchService, ObjectMapper objectMapper,
+                                 @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.userBatchService = userBatchService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public ImportJobDTO startImport(ImportRequestDTO request) {
+        if (request.getFile() == null || request.getFile().isBlank()) {
+            throw new ImportRequestException("File must be given");
+        }
+        Path root = Paths.get(directory).toAbsolutePath().normalize();
+        Path file = root.resolve(request.getFile()).normalize();
+        if (!file.startsWith(root)) {
+            throw new ImportRequestException("File must be inside the import directory");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Import file", "Path", request.getFile());
+        }
+        String format = format(request.getFormat(), file);
+        ImportJob job = new ImportJob(request.getFile(), format, request.getFile() + ERROR_REPORT_SUFFIX);
+        synchronized (jobs) {
+            for (ImportJob running : jobs.asMap().values()) {
+                if (running.isRunning() && running.getFile().equals(job.getFile())) {
+                    throw new ImportRequestException("File is already being imported");
+                }
+            }
+            jobs.put(job.getId(), job);
+        }
+        taskExecutor.execute(() -> run(job, file, format));
+        return job.toDto();
+    }
+
+    @Override
+    public ImportJobDTO getJob(String id) {
+        ImportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job", "Id", id);
+        }
+        return job.toDto();
+    }
+
+    private void run(ImportJob job, Path file, String format) {
+        Path checkpointPath = file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+        Path errorReportPath = file.resolveSibling(file.getFileName() + ERROR_REPORT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointPath, size,
+                    Files.getLastModifiedTime(file).toMillis());
+            try (Writer errorReport = Files.newBufferedWriter(errorReportPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    checkpoint.getOffset() > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                importFile(job, channel, size, format, checkpoint, checkpointPath, errorReport);
+            }
+            Files.deleteIfExists(checkpointPath);
+            job.succeed();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Import job {} of {} failed", job.getId(), job.getFile(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the file window by window from {@code checkpoint} to its end.
+     */
+    private void importFile(ImportJob job, FileChannel channel, long size, String format, ImportCheckpoint checkpoint,
+                            Path checkpointPath, Writer errorReport) throws IOException {
+        long dataStart = startsWithBom(channel) ? UTF8_BOM.length : 0;
+        UserRecordParser parser;
+        if ("CSV".equals(format)) {
+            byte[] header = readLine(channel, dataStart);
+            parser = UserRecordParser.csv(new String(header, StandardCharsets.UTF_8).strip());
+            dataStart = Math.min(size, dataStart + header.length + 1);
+            if (checkpoint.getOffset() < dataStart) {
+                checkpoint = checkpoint.skip(dataStart, 1);
+            }
+        } else {
+            parser = UserRecordParser.ndjson(objectMapper.readerFor(UserDTO.class));
+            if (checkpoint.getOffset() < dataStart) {
+                checkpoint = checkpoint.skip(dataStart, 0);
+            }
+        }
+        job.start(size, checkpoint);
+
+        long position = checkpoint.getOffset();
+        long lines = checkpoint.getLines();
+        while (position < size) {
+            long length = Math.min(windowSize.toBytes(), size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int end = (int) length;
+            if (position + length < size) {
+                end = lastLineEnd(window, end);
+                if (end == 0) {
+                    throw new IllegalStateException("Record at offset " + position + " is larger than the import window");
+                }
+            }
+            Window parsed = parseWindow(window, end, position, lines, parser);
+            checkpoint = importRecords(job, parsed.records, checkpoint, checkpointPath, errorReport);
+            position += end;
+            lines = parsed.lines;
+        }
+        LOGGER.info("Import of {} finished: {} records, {} created, {} failed", job.getFile(),
+                checkpoint.getRecords(), checkpoint.getCreated(), checkpoint.getFailed());
+    }
+
+    /**
+     * Writes the records batch by batch and checkpoints after each one.
+     */
+    private ImportCheckpoint importRecords(ImportJob job, List<ParsedRecord> records, ImportCheckpoint checkpoint,
+                                           Path checkpointPath, Writer errorReport) throws IOException {
+        for (int from = 0; from < records.size(); from += batchSize) {
+            List<ParsedRecord> batch = records.subList(from, Math.min(from + batchSize, records.size()));
+            List<UserDTO> users = new ArrayList<>(batch.size());
+            List<ParsedRecord> parsed = new ArrayList<>(batch.size());
+            int failed = 0;
+            for (ParsedRecord record : batch) {
+                if (record.user != null) {
+                    users.add(record.user);
+                    parsed.add(record);
+                } else {
+                    writeError(errorReport, record.line, List.of(record.error));
+                    failed++;
+                }
+            }
+            int created = 0;
+            if (!users.isEmpty()) {
+                BatchResultDTO result = userBatchService.saveUsers(users);
+                created = result.getCreated();
+                for (BatchItemErrorDTO failure : result.getFailures()) {
+                    writeError(errorReport, parsed.get(failure.getIndex()).line, failure.getErrors());
+                    failed++;
+                }
+            }
+            errorReport.flush();
+            ParsedRecord last = batch.get(batch.size() - 1);
+            checkpoint = checkpoint.advance(last.endOffset, last.line, batch.size(), created, failed);
+            checkpoint.store(checkpointPath);
+            job.committed(checkpoint);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Cuts {@code [0, end)} of the window into line-aligned slices and parses them in parallel.
+     */
+    private Window parseWindow(MappedByteBuffer window, int end, long position, long lines, UserRecordParser parser) {
+        int slices = Math.max(1, Math.min(effectiveParallelism(), end / MIN_SLICE_SIZE));
+        int[] bounds = new int[slices + 1];
+        bounds[slices] = end;
+        for (int i = 1; i < slices; i++) {
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(window, (int) ((long) end * i / slices), end));
+        }
+        List<Slice> parsedSlices = IntStream.range(0, slices).parallel()
+                .mapToObj(i -> parseSlice(window, bounds[i], bounds[i + 1], position, parser))
+                .toList();
+
+        List<ParsedRecord> records = new ArrayList<>();
+        long lineBase = lines;
+        for (Slice slice : parsedSlices) {
+            for (ParsedRecord record : slice.records) {
+                record.line += lineBase;
+                records.add(record);
+            }
+            lineBase += slice.lines;
+        }
+        return new Window(records, lineBase);
+    }
+
+    private static Slice parseSlice(ByteBuffer window, int start, int end, long position, UserRecordParser parser) {
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes);
+        List<ParsedRecord> records = new ArrayList<>();
+        int lines = 0;
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd < bytes.length ? lineEnd + 1 : lineEnd;
+            lines++;
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (!isBlank(bytes, lineStart, contentEnd)) {
+                ParsedRecord record = new ParsedRecord(lines, position + start + next);
+                try {
+                    record.user = parser.parse(bytes, lineStart, contentEnd - lineStart);
+                } catch (IOException | RuntimeException e) {
+                    record.error = "Malformed record";
+                }
+                records.add(record);
+            }
+            lineStart = next;
+        }
+        return new Slice(records, lines);
+    }
+
+    private void writeError(Writer errorReport, long line, List<String> errors) throws IOException {
+        errorReport.write(objectMapper.writeValueAsString(new ImportError(line, errors)));
+        errorReport.write('\n');
+    }
+
+    private int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static String format(String format, Path file) {
+        if (format != null) {
+            String upperCase = format.toUpperCase(Locale.ROOT);
+            if (upperCase.equals("CSV") || upperCase.equals("NDJSON")) {
+                return upperCase;
+            }
+            throw new ImportRequestException("Unknown import format");
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return "CSV";
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return "NDJSON";
+        }
+        throw new ImportRequestException("Unknown import format");
+    }
+
+    private static boolean startsWithBom(FileChannel channel) throws IOException {
+        ByteBuffer start = ByteBuffer.allocate(UTF8_BOM.length);
+        channel.read(start, 0);
+        return start.position() == UTF8_BOM.length && start.get(0) == UTF8_BOM[0]
+                && start.get(1) == UTF8_BOM[1] && start.get(2) == UTF8_BOM[2];
+    }
+
+    /**
+     * The bytes of the line starting at {@code offset}, without its line terminator.
+     */
+    private static byte[] readLine(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(MAX_HEADER_SIZE, Math.max(0, channel.size() - offset)));
+        channel.read(buffer, offset);
+        buffer.flip();
+        int length = 0;
+        while (length < buffer.limit() && buffer.get(length) != '\n') {
+            length++;
+        }
+        byte[] line = new byte[length];
+        buffer.get(0, line);
+        return line;
+    }
+
+    private static int lastLineEnd(ByteBuffer window, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int nextLineStart(ByteBuffer window, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    private static boolean isBlank(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class ParsedRecord {
+
+        /**
+         * Line number, relative to its slice until the window is assembled.
+         */
+        private long line;
+
+        /**
+         * File offset right after the record's line terminator.
+         */
+        private final long endOffset;
+
+        private UserDTO user;
+
+        private String error;
+
+        private ParsedRecord(long line, long endOffset) {
+            this.line = line;
+            this.endOffset = endOffset;
+        }
+    }
+
+    private record Slice(List<ParsedRecord> records, int lines) {
+    }
+
+    private record Window(List<ParsedRecord> records, long lines) {
+    }
+
+    private record ImportError(long line, List<String> errors) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.clear_solutions.test_assignment.service.impl;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns one line of an import file into a {@link UserDTO}. Implementations
+ * are stateless and shared by the parsing threads.
+ */
+interface UserRecordParser {
+
+    /**
+     * @throws IllegalArgumentException or {@link IOException} for a malformed record
+     */
+    UserDTO parse(byte[] bytes, int offset, int length) throws IOException;
+
+    static UserRecordParser ndjson(ObjectReader userReader) {
+        return userReader::readValue;
+    }
+
+    /**
+     * Comma-separated values with double-quote quoting, columns named by the
+     * header line after the {@code UserDTO} properties.
+     */
+    static UserRecordParser csv(String headerLine) {
+        List<String> header = splitCsv(headerLine);
+        int email = header.indexOf("email");
+        int firstName = header.indexOf("firstName");
+        int lastName = header.indexOf("lastName");
+        int birthDate = header.indexOf("birthDate");
+        int address = header.indexOf("address");
+        int phoneNumber = header.indexOf("phoneNumber");
+        if (email < 0 || firstName < 0 || lastName < 0 || birthDate < 0) {
+            throw new IllegalArgumentException("CSV header must name email, firstName, lastName and birthDate");
+        }
+        return (bytes, offset, length) -> {
+            List<String> fields = splitCsv(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields");
+            }
+            UserDTO userDTO = new UserDTO();
+            userDTO.setEmail(fields.get(email));
+            userDTO.setFirstName(fields.get(firstName));
+            userDTO.setLastName(fields.get(lastName));
+            userDTO.setBirthDate(fields.get(birthDate).isEmpty() ? null : LocalDate.parse(fields.get(birthDate)));
+            if (address >= 0 && !fields.get(address).isEmpty()) {
+                userDTO.setAddress(fields.get(address));
+            }
+            if (phoneNumber >= 0 && !fields.get(phoneNumber).isEmpty()) {
+                userDTO.setPhoneNumber(Integer.parseInt(fields.get(phoneNumber)));
+            }
+            return userDTO;
+        };
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
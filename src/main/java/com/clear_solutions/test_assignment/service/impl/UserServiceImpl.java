@@ -1,85 +1,332 @@
 package com.clear_solutions.test_assignment.service.impl;
 
+import com.clear_solutions.test_assignment.config.CacheConfig;
+import com.clear_solutions.test_assignment.dto.BirthMonthCountDTO;
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.PreconditionFailedException;
 import com.clear_solutions.test_assignment.exception.RangeDateException;
 import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.exception.SearchQueryException;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.AgeBracketCounts;
+import com.clear_solutions.test_assignment.repository.BirthMonthCount;
 import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.repository.UserView;
 import com.clear_solutions.test_assignment.service.UserService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "user.service", description = "User service method latency")
 public class UserServiceImpl implements UserService {
 
-    @Value("${user.age}")
-    private String adult_user_age;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int MAX_SEARCH_TOKENS = 5;
+
+    /**
+     * Shorter prefixes match too large a share of every index to rank quickly.
+     */
+    private static final int MIN_SEARCH_TOKEN_LENGTH = 3;
+
+    @Value("${user.stats.refresh-after}")
+    private Duration statsRefreshAfter;
+
+    @Value("${user.stats.expire-after}")
+    private Duration statsExpireAfter;
+
+    /**
+     * Stats keyed by the day they were computed for. Once an entry is older than
+     * {@code statsRefreshAfter} the next request still gets it while a single
+     * background reload replaces it.
+     */
+    private LoadingCache<LocalDate, UserStatsDTO> statsCache;
+
+    @Autowired(required = false)
+    private EmailBloomFilter emailBloomFilter;
 
     private final UserRepository userRepository;
 
+    private final UserChangeLog userChangeLog;
+
+    private final AdultAgeCutoff adultAgeCutoff;
+
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserChangeLog userChangeLog, AdultAgeCutoff adultAgeCutoff) {
         this.userRepository = userRepository;
+        this.userChangeLog = userChangeLog;
+        this.adultAgeCutoff = adultAgeCutoff;
+    }
+
+    @PostConstruct
+    void initStatsCache() {
+        statsCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .refreshAfterWrite(statsRefreshAfter)
+                .expireAfterWrite(statsExpireAfter)
+                .build(this::loadUserStats);
     }
 
+    /**
+     * Flushes inside the transaction so that a duplicate email surfaces here
+     * rather than at commit.
+     */
     @Override
+    @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e);
+        }
+        userChangeLog.created(List.of(savedUser));
+        rememberEmail(savedUser.getEmail());
+        return savedUser;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<User> getUsersPage(long afterId, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserView> consumer) {
+        try (Stream<UserView> users = userRepository.streamAllBy()) {
+            users.forEach(consumer);
+        }
+    }
+
+    // Read-write so the row comes from the primary: a lagging replica's copy would sit in the
+    // cache until it expires and fail every If-Match sent with the current version. Synchronized
+    // so an eviction racing the load waits for it and removes the row it read (see CacheConfig)
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id", sync = true)
+    @Transactional
     public User getUserById(long id) {
         return userRepository.findById(id).orElseThrow(() ->
                 new ResourceNotFoundException("User", "Id", id));
     }
 
     @Override
-    public User updateUser(User user, long id) {
+    public User getUserByEmail(String email) {
+        return userRepository.findByEmail(email).orElseThrow(() ->
+                new ResourceNotFoundException("User", "Email", email));
+    }
+
+    @Override
+    public boolean isEmailRegistered(String email) {
+        if (emailBloomFilter != null && !emailBloomFilter.mightContain(email)) {
+            return false;
+        }
+        return userRepository.existsByEmail(email);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public User updateUser(User user, long id, Long expectedVersion) {
+        int updated;
+        try {
+            updated = userRepository.updateById(id, expectedVersion, user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e);
+        }
+        if (updated == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        rememberEmail(user.getEmail());
+        user.setId(id);
+        if (expectedVersion != null) {
+            user.setVersion(expectedVersion + 1);
+        }
+        userChangeLog.updated(List.of(user));
+        return user;
+    }
+
+    /**
+     * Applies {@code patch} to the managed user. With dynamic updates Hibernate
+     * only writes the columns whose values actually changed; the flush bumps
+     * the version so the returned user carries the new one.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public User patchUser(long id, Long expectedVersion, Consumer<User> patch) {
         User existingUser = userRepository.findById(id).orElseThrow(() ->
                 new ResourceNotFoundException("User", "Id", id));
-        existingUser.setEmail(user.getEmail());
-        existingUser.setFirstName(user.getFirstName());
-        existingUser.setLastName(user.getLastName());
-        existingUser.setBirthDate(user.getBirthDate());
-        existingUser.setAddress(user.getAddress());
-        existingUser.setPhoneNumber(user.getPhoneNumber());
-        userRepository.save(existingUser);
+        if (expectedVersion != null && existingUser.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("User has been modified");
+        }
+        patch.accept(existingUser);
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e);
+        }
+        userChangeLog.updated(List.of(existingUser));
+        rememberEmail(existingUser.getEmail());
         return existingUser;
     }
 
     @Override
-    public void deleteUser(long id) {
-        userRepository.findById(id).orElseThrow(() ->
-                new ResourceNotFoundException("User", "Id", id));
-        userRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
+    public void deleteUser(long id, Long expectedVersion) {
+        if (userRepository.deleteUserById(id, expectedVersion) == 0) {
+            throw notUpdated(id, expectedVersion);
+        }
+        userChangeLog.deleted(List.of(id));
     }
 
     @Override
     public boolean isAdultUser(LocalDate userBirthDate) {
-        int validUserAge = Integer.parseInt(adult_user_age);
-        LocalDate currentDate = LocalDate.now();
-        return (Period.between(userBirthDate, currentDate).getYears()) >= validUserAge;
+        return adultAgeCutoff.isAdult(userBirthDate);
     }
 
     @Override
+    public Predicate<LocalDate> adultUserPredicate() {
+        return adultAgeCutoff.adults();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<User> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate) {
+        return usersByBirthDateRange(fromDate, toDate, User.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<T> usersByBirthDateRange(LocalDate fromDate, LocalDate toDate, Class<T> type) {
+        checkDateRange(fromDate, toDate);
+        return userRepository.findByBirthDateAfterAndBirthDateBefore(fromDate, toDate, type);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> usersByBirthDateRangePage(LocalDate fromDate, LocalDate toDate,
+                                                LocalDate afterBirthDate, long afterId, int limit) {
+        checkDateRange(fromDate, toDate);
+        // Every row in range is after fromDate, so it doubles as the first-page cursor
+        LocalDate cursorDate = afterBirthDate == null ? fromDate : afterBirthDate;
+        return userRepository.findPageByBirthDateRange(fromDate, toDate, cursorDate, afterId,
+                PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> searchUsers(String query, int page, int size) {
+        List<String> tokens = new ArrayList<>(MAX_SEARCH_TOKENS);
+        for (String token : WHITESPACE.split(query.trim())) {
+            if (!token.isEmpty() && tokens.size() < MAX_SEARCH_TOKENS) {
+                if (token.length() < MIN_SEARCH_TOKEN_LENGTH) {
+                    throw new SearchQueryException("Search terms must be at least "
+                            + MIN_SEARCH_TOKEN_LENGTH + " characters long");
+                }
+                tokens.add(token);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.search(tokens, page * size, size);
+    }
+
+    @Override
+    public UserStatsDTO getUserStats() {
+        return statsCache.get(adultAgeCutoff.today());
+    }
+
+    /**
+     * Adults are split at 30, 45 and 65; bounds at or below the adult age
+     * collapse onto it, leaving empty brackets that are not reported.
+     */
+    private UserStatsDTO loadUserStats(LocalDate today) {
+        int adultAge = adultAgeCutoff.getAdultAge();
+        int[] bounds = {adultAge, Math.max(30, adultAge), Math.max(45, adultAge), Math.max(65, adultAge)};
+        AgeBracketCounts counts = userRepository.countByAgeBracket(today.minusYears(bounds[0]),
+                today.minusYears(bounds[1]), today.minusYears(bounds[2]), today.minusYears(bounds[3]));
+        long[] adultCounts = {counts.getUnder30(), counts.getUnder45(), counts.getUnder65(), counts.getSeniors()};
+        Map<String, Long> ageBrackets = new LinkedHashMap<>();
+        ageBrackets.put("0-" + (adultAge - 1), counts.getMinors());
+        for (int i = 0; i < bounds.length - 1; i++) {
+            if (bounds[i + 1] > bounds[i]) {
+                ageBrackets.put(bounds[i] + "-" + (bounds[i + 1] - 1), adultCounts[i]);
+            }
+        }
+        ageBrackets.put(bounds[bounds.length - 1] + "+", adultCounts[bounds.length - 1]);
+
+        List<BirthMonthCount> months = userRepository.countByBirthMonth();
+        List<BirthMonthCountDTO> birthMonths = new ArrayList<>(months.size());
+        long total = 0;
+        for (BirthMonthCount month : months) {
+            birthMonths.add(new BirthMonthCountDTO(month.getBirthYear(), month.getBirthMonth(), month.getCount()));
+            total += month.getCount();
+        }
+        return new UserStatsDTO(today, total, ageBrackets, birthMonths);
+    }
+
+    /**
+     * Whether the insert or update was rejected by the {@code uk_users_email} constraint.
+     */
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_CONSTRAINT);
+    }
+
+    private static RuntimeException duplicateEmailOr(DataIntegrityViolationException e) {
+        return isDuplicateEmail(e) ? new DuplicateEmailException() : e;
+    }
+
+    private void rememberEmail(String email) {
+        if (emailBloomFilter != null) {
+            emailBloomFilter.add(email);
+        }
+    }
+
+    private RuntimeException notUpdated(long id, Long expectedVersion) {
+        if (expectedVersion != null && userRepository.existsById(id)) {
+            return new PreconditionFailedException("User has been modified");
+        }
+        return new ResourceNotFoundException("User", "Id", id);
+    }
+
+    private void checkDateRange(LocalDate fromDate, LocalDate toDate) {
         if (fromDate.isAfter(toDate)) {
             throw new RangeDateException("Argument fromDate should be less then toDate");
         }
-        List<User> allUsers = userRepository.findAll();
-        return allUsers.stream()
-                .filter(user -> user.getBirthDate().isAfter(fromDate)
-                        && user.getBirthDate().isBefore(toDate))
-                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,160 @@
+package com.clear_solutions.test_assignment.validation;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the constraints declared on {@link UserDTO} without going through
+ * Hibernate Validator: the same rules and messages, evaluated with plain
+ * character loops and one precompiled email pattern. The annotations on
+ * {@code UserDTO} stay the reference, keep both in sync.
+ */
+@Component
+public class UserDTOValidator implements Validator {
+
+    private static final String EMAIL_LOCAL_PART_ATOM = "[a-zA-Z0-9_!#$%&'*+/=?`{|}~^-]+";
+    private static final String EMAIL_DOMAIN_LABEL = "[a-zA-Z0-9](?:[a-zA-Z0-9-]*[a-zA-Z0-9])?";
+
+    /**
+     * The intersection of the {@code @Email} regexp on {@code UserDTO} and
+     * Hibernate Validator's own local part and domain syntax.
+     */
+    private static final Pattern EMAIL = Pattern.compile(
+            "(" + EMAIL_LOCAL_PART_ATOM + "(?:\\." + EMAIL_LOCAL_PART_ATOM + ")*)"
+                    + "@(" + EMAIL_DOMAIN_LABEL + "(?:\\." + EMAIL_DOMAIN_LABEL + ")*)");
+
+    private static final int EMAIL_LOCAL_PART_MAX_LENGTH = 64;
+    private static final int EMAIL_DOMAIN_MAX_LENGTH = 255;
+    private static final int EMAIL_DOMAIN_LABEL_MAX_LENGTH = 63;
+
+    private static final int FIRST_NAME_MIN_LENGTH = 3;
+    private static final int FIRST_NAME_MAX_LENGTH = 20;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return UserDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate((UserDTO) target, errors::rejectValue);
+    }
+
+    /**
+     * @return the violated constraint messages, empty for a valid user
+     */
+    public List<String> validate(UserDTO userDTO) {
+        List<String> messages = new ArrayList<>();
+        validate(userDTO, (field, code, message) -> messages.add(message));
+        return messages;
+    }
+
+    private void validate(UserDTO userDTO, Rejection rejection) {
+        String email = userDTO.getEmail();
+        if (isBlank(email)) {
+            rejection.reject("email", "NotBlank", "Email cannot be empty");
+        }
+        if (!isEmail(email)) {
+            rejection.reject("email", "Email", "Email is not valid");
+        }
+
+        String firstName = userDTO.getFirstName();
+        if (isBlank(firstName)) {
+            rejection.reject("firstName", "NotBlank", "First Name cannot be empty");
+        }
+        if (!isLatinLetters(firstName)) {
+            rejection.reject("firstName", "Pattern", "Invalid Input");
+        }
+        if (firstName != null
+                && (firstName.length() < FIRST_NAME_MIN_LENGTH || firstName.length() > FIRST_NAME_MAX_LENGTH)) {
+            rejection.reject("firstName", "Length", "Invalid name");
+        }
+
+        String lastName = userDTO.getLastName();
+        if (isBlank(lastName)) {
+            rejection.reject("lastName", "NotBlank", "Last Name cannot be empty");
+        }
+        if (!isLatinLetters(lastName)) {
+            rejection.reject("lastName", "Pattern", "Invalid Input");
+        }
+
+        LocalDate birthDate = userDTO.getBirthDate();
+        if (birthDate == null) {
+            rejection.reject("birthDate", "NotNull", "Date cannot be null");
+        } else if (!birthDate.isBefore(LocalDate.now())) {
+            rejection.reject("birthDate", "Past", "Invalid birth date");
+        }
+    }
+
+    /**
+     * Same as {@code @NotBlank}: null, empty or only characters {@code String.trim()} would strip.
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@code @Pattern(regexp = "^[A-Za-z]*$")}, null is valid.
+     */
+    private static boolean isLatinLetters(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@code @Email} with the {@code UserDTO} regexp, null is valid but
+     * an empty string fails the regexp.
+     */
+    private static boolean isEmail(String value) {
+        if (value == null) {
+            return true;
+        }
+        Matcher matcher = EMAIL.matcher(value);
+        if (!matcher.matches()) {
+            return false;
+        }
+        if (matcher.end(1) - matcher.start(1) > EMAIL_LOCAL_PART_MAX_LENGTH
+                || matcher.end(2) - matcher.start(2) > EMAIL_DOMAIN_MAX_LENGTH) {
+            return false;
+        }
+        int labelStart = matcher.start(2);
+        for (int i = labelStart; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == '.') {
+                if (i - labelStart > EMAIL_DOMAIN_LABEL_MAX_LENGTH) {
+                    return false;
+                }
+                labelStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Rejection {
+        void reject(String field, String code, String message);
+    }
+}
@@ -0,0 +1,20 @@
+-- Adds the uk_users_email constraint to a users table created before it existed.
+-- ddl-auto=update cannot add it while duplicate emails are present, so run this once by hand,
+-- with the application stopped, before deploying a version that maps the constraint.
+
+-- Emails registered more than once; review them before deleting anything
+SELECT email, COUNT(*) AS registrations, MIN(id) AS kept_id
+FROM users
+GROUP BY email
+HAVING COUNT(*) > 1;
+
+START TRANSACTION;
+
+-- Keep the oldest row of each email. Grouping uses the column collation, the same comparison
+-- the unique index will make; the derived table lets MySQL read the table it deletes from
+DELETE FROM users
+WHERE id NOT IN (SELECT kept_id FROM (SELECT MIN(id) AS kept_id FROM users GROUP BY email) kept);
+
+COMMIT;
+
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
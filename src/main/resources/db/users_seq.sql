@@ -0,0 +1,13 @@
+-- Seeds the users_seq table for a users table created while User.id was still an IDENTITY column.
+-- MySQL has no sequences, so Hibernate emulates users_seq with a table, and ddl-auto=update creates
+-- it with next_val = 1: new inserts would reuse the ids of existing rows. Run this once by hand,
+-- with the application stopped, before deploying a version that maps the users_seq generator.
+
+CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT) ENGINE=InnoDB;
+
+INSERT INTO users_seq (next_val)
+SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+
+-- The pooled optimizer reserves the block of allocationSize (100) ids ending at the value it reads,
+-- so next_val has to lie a whole block above the highest id in use
+UPDATE users_seq SET next_val = (SELECT COALESCE(MAX(id), 0) + 100 FROM users);
@@ -0,0 +1,73 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.config.RateLimitInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Overhead {@link RateLimitInterceptor} adds to a request, with eight threads
+ * admitting requests at once: each as its own client, or all as the same one
+ * hammering a single bucket. Limits are set high enough that nothing is
+ * rejected, so only the bookkeeping is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private RateLimitInterceptor interceptor;
+
+    private HandlerMethod handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        interceptor = new RateLimitInterceptor(Integer.MAX_VALUE / 2, 1_000_000_000, 100_000, Integer.MAX_VALUE);
+        handler = new HandlerMethod(this, "handle");
+    }
+
+    public void handle() {
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+        private final MockHttpServletRequest ownRequest = request("10.0.0." + CLIENTS.incrementAndGet());
+
+        private final MockHttpServletRequest sharedRequest = request("10.0.0.0");
+
+        private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        private static MockHttpServletRequest request(String remoteAddress) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+            request.setRemoteAddr(remoteAddress);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public boolean ownClient(Client client) throws Exception {
+        return admit(client.ownRequest, client.response);
+    }
+
+    @Benchmark
+    public boolean sharedClient(Client client) throws Exception {
+        return admit(client.sharedRequest, client.response);
+    }
+
+    private boolean admit(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        boolean admitted = interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+        return admitted;
+    }
+}
@@ -0,0 +1,104 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and CPU per request of sending a {@code GET /api/users}
+ * JSON body as it is, gzip-encoded the way Tomcat does it and Brotli-encoded
+ * at the quality the application runs with. Each benchmark returns the wire
+ * size, which the setup also logs per encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class UserCompressionBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserCompressionBenchmark.class);
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    @Param("4")
+    private int brotliQuality;
+
+    private byte[] body;
+
+    private Encoder.Parameters brotliParameters;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Brotli4jLoader.ensureAvailability();
+        body = new ObjectMapper().findAndRegisterModules()
+                .writeValueAsBytes(new UserMapper().toDtoList(UserFixtures.users(size)).toArray(new UserDTO[0]));
+        brotliParameters = new Encoder.Parameters().setQuality(brotliQuality);
+        LOGGER.info("{} users: identity {} bytes, gzip {} bytes, br {} bytes", size, identity(), gzip(), brotli());
+    }
+
+    @Benchmark
+    public long identity() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        output.write(body, 0, body.length);
+        return output.count;
+    }
+
+    @Benchmark
+    public long gzip() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output, 8192)) {
+            write(gzip);
+        }
+        return output.count;
+    }
+
+    @Benchmark
+    public long brotli() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        try (BrotliOutputStream brotli = new BrotliOutputStream(output, brotliParameters)) {
+            write(brotli);
+        }
+        return output.count;
+    }
+
+    /**
+     * Feeds the body in the 8 KB chunks Jackson writes it in.
+     */
+    private void write(OutputStream output) throws IOException {
+        for (int offset = 0; offset < body.length; offset += 8000) {
+            output.write(body, offset, Math.min(8000, body.length - offset));
+        }
+    }
+
+    /**
+     * Stands in for the response stream, keeping socket costs out of the numbers.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
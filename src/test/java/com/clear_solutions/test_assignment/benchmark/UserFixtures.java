@@ -0,0 +1,76 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic users for the benchmarks. Names and birth dates are
+ * drawn from shared pools so that multi-million user datasets fit in a few GB.
+ */
+final class UserFixtures {
+
+    static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    static final int BIRTH_DATE_SPAN_DAYS = 80 * 365;
+
+    private static final String[] FIRST_NAMES = {"Bob", "Den", "Mike", "Alice", "Olga", "Taras", "Maria", "John"};
+    private static final String[] LAST_NAMES = {"Smith", "Mitchel", "Taylor", "Brown", "Shevchenko", "Kovalenko"};
+    private static final String[] ADDRESSES = {"New_York", "Chicago", "Kyiv", "Lviv", "Boston"};
+
+    private UserFixtures() {
+    }
+
+    /**
+     * @return {@code size} users ordered by birth date and id, the order an index on birth_date yields
+     */
+    static List<User> users(int size) {
+        LocalDate[] birthDates = new LocalDate[BIRTH_DATE_SPAN_DAYS];
+        for (int day = 0; day < birthDates.length; day++) {
+            birthDates[day] = FIRST_BIRTH_DATE.plusDays(day);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(User.builder()
+                    .id(i + 1L)
+                    .email("user" + i + "@example.com")
+                    .firstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)])
+                    .lastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                    .birthDate(birthDates[random.nextInt(birthDates.length)])
+                    .address(ADDRESSES[random.nextInt(ADDRESSES.length)])
+                    .phoneNumber(random.nextInt(10_000_000, 99_999_999))
+                    .build());
+        }
+        users.sort(Comparator.comparing(User::getBirthDate).thenComparingLong(User::getId));
+        return users;
+    }
+
+    static UserDTO validUserDto() {
+        return UserDTO.builder()
+                .id(1L)
+                .email("test1@gmail.com")
+                .firstName("Bob")
+                .lastName("Smith")
+                .birthDate(LocalDate.of(1980, 11, 20))
+                .address("New_York")
+                .phoneNumber(12345678)
+                .build();
+    }
+
+    static UserDTO invalidUserDto() {
+        return UserDTO.builder()
+                .id(1L)
+                .email("test1 at gmail")
+                .firstName("B0")
+                .lastName("")
+                .birthDate(LocalDate.now().plusDays(1))
+                .address("New_York")
+                .phoneNumber(12345678)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class UserMapperBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> users;
+
+    private User user;
+
+    private UserDTO userDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = UserFixtures.users(size);
+        user = users.get(0);
+        userDTO = UserFixtures.validUserDto();
+    }
+
+    @Benchmark
+    public UserDTO toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User toEntity() {
+        return userMapper.toEntity(userDTO);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<UserDTO> toDtoList() {
+        return userMapper.toDtoList(users);
+    }
+}
@@ -0,0 +1,93 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.mapper.UserProtobufEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of writing a {@code GET /api/users} body as JSON, CBOR and
+ * length-delimited Protobuf. Each benchmark returns the payload size, which
+ * the setup also logs per format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class UserSerializationBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserSerializationBenchmark.class);
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<UserDTO> userDTOs;
+
+    private ObjectWriter jsonWriter;
+
+    private ObjectWriter cborWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        userDTOs = new UserMapper().toDtoList(UserFixtures.users(size));
+        jsonWriter = new ObjectMapper().findAndRegisterModules().writerFor(UserDTO[].class);
+        cborWriter = new CBORMapper().findAndRegisterModules().writerFor(UserDTO[].class);
+        LOGGER.info("{} users: json {} bytes, cbor {} bytes, protobuf {} bytes", size, json(), cbor(), protobuf());
+    }
+
+    @Benchmark
+    public long json() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        jsonWriter.writeValue(output, userDTOs.toArray(new UserDTO[0]));
+        return output.count;
+    }
+
+    @Benchmark
+    public long cbor() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        cborWriter.writeValue(output, userDTOs.toArray(new UserDTO[0]));
+        return output.count;
+    }
+
+    @Benchmark
+    public long protobuf() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        CodedOutputStream codedOutput = CodedOutputStream.newInstance(output, 8192);
+        for (UserDTO userDTO : userDTOs) {
+            UserProtobufEncoder.writeDelimited(userDTO, codedOutput);
+        }
+        codedOutput.flush();
+        return output.count;
+    }
+
+    /**
+     * Stands in for the response stream, keeping socket costs out of the numbers.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.TestAssignmentApplication;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * {@link UserService} as the application wires it, over an in-memory H2
+ * database in MySQL mode filled with {@code size} users, so the range query
+ * goes through the transaction, Hibernate and the {@code idx_users_birth_date}
+ * index. The setup fails when H2 does not plan the range query on that index.
+ * {@link #fullScanByBirthDateRange()} is the former load-everything-and-filter
+ * implementation kept as a baseline, as is {@link #periodAdultUser()} for the
+ * age check. H2 stands in for MySQL, so absolute numbers differ from production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class UserServiceBenchmark {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserServiceBenchmark.class);
+
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private LocalDate fromDate;
+
+    private LocalDate toDate;
+
+    private LocalDate birthDate;
+
+    private LocalDate[] batchBirthDates;
+
+    private String adultUserAge;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TestAssignmentApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--user.changes.poll-interval-ms=3600000",
+                        "--logging.level.root=WARN");
+        userService = context.getBean(UserService.class);
+        List<User> users = UserFixtures.users(size);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.batchUpdate("insert into users (id, email, first_name, last_name, birth_date, address,"
+                        + " phone_number, version) values (?, ?, ?, ?, ?, ?, ?, 0)", users, 10_000,
+                (statement, user) -> {
+                    statement.setLong(1, user.getId());
+                    statement.setString(2, user.getEmail());
+                    statement.setString(3, user.getFirstName());
+                    statement.setString(4, user.getLastName());
+                    statement.setDate(5, Date.valueOf(user.getBirthDate()));
+                    statement.setString(6, user.getAddress());
+                    statement.setInt(7, user.getPhoneNumber());
+                });
+        jdbcTemplate.execute("analyze");
+        fromDate = LocalDate.of(1990, 1, 1);
+        toDate = LocalDate.of(2000, 1, 1);
+        birthDate = LocalDate.of(2005, 6, 15);
+        batchBirthDates = users.stream().limit(1000).map(User::getBirthDate).toArray(LocalDate[]::new);
+        adultUserAge = "18";
+        String plan = jdbcTemplate.queryForObject("explain select * from users"
+                + " where birth_date > ? and birth_date < ?", String.class, fromDate, toDate);
+        LOGGER.debug("Birth-date range plan: {}", plan);
+        if (!plan.contains("idx_users_birth_date:")) {
+            throw new IllegalStateException("Birth-date range query does not use idx_users_birth_date: " + plan);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isAdultUser() {
+        return userService.isAdultUser(birthDate);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean periodAdultUser() {
+        return Period.between(birthDate, LocalDate.now()).getYears() >= Integer.parseInt(adultUserAge);
+    }
+
+    /**
+     * Checks the first 1000 users the way a batch insert does.
+     */
+    @Benchmark
+    public int adultUserPredicate() {
+        Predicate<LocalDate> adult = userService.adultUserPredicate();
+        int adults = 0;
+        for (LocalDate batchBirthDate : batchBirthDates) {
+            if (adult.test(batchBirthDate)) {
+                adults++;
+            }
+        }
+        return adults;
+    }
+
+    @Benchmark
+    public List<User> usersByBirthDateRange() {
+        return userService.usersByBirthDateRange(fromDate, toDate);
+    }
+
+    @Benchmark
+    public List<User> fullScanByBirthDateRange() {
+        return userService.getAllUsers().stream()
+                .filter(user -> user.getBirthDate().isAfter(fromDate)
+                        && user.getBirthDate().isBefore(toDate))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,84 @@
+package com.clear_solutions.test_assignment.benchmark;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Bean Validation of {@link UserDTO} next to {@link UserDTOValidator}, which
+ * now runs for every POST, and the bare regular expressions the constraints
+ * are built on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    private static final Pattern EMAIL = Pattern.compile("^[a-zA-Z0-9_!#$%&'*+/=?`{|}~^.-]+@[a-zA-Z0-9.-]+$");
+    private static final Pattern NAME = Pattern.compile("^[A-Za-z]*$");
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private final UserDTOValidator userDTOValidator = new UserDTOValidator();
+
+    private UserDTO validUser;
+
+    private UserDTO invalidUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validUser = UserFixtures.validUserDto();
+        invalidUser = UserFixtures.invalidUserDto();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public List<String> fastValidateValidUser() {
+        return userDTOValidator.validate(validUser);
+    }
+
+    @Benchmark
+    public List<String> fastValidateInvalidUser() {
+        return userDTOValidator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public boolean emailRegex() {
+        return EMAIL.matcher(validUser.getEmail()).matches();
+    }
+
+    @Benchmark
+    public boolean nameRegex() {
+        return NAME.matcher(validUser.getFirstName()).matches();
+    }
+}
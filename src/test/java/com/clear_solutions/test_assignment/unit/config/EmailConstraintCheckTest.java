@@ -0,0 +1,40 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.EmailConstraintCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A users table as an older version left it, with a duplicate email, before
+ * and after {@code db/uk_users_email.sql}.
+ */
+public class EmailConstraintCheckTest {
+
+    @Test
+    public void checkMissingConstraint_failedFlow() throws Exception {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:email-constraint;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("create table users (id bigint primary key, email varchar(255) not null)");
+            jdbcTemplate.update("insert into users values (1, 'john@example.com'), (2, 'jane@example.com'),"
+                    + " (3, 'john@example.com')");
+            EmailConstraintCheck check = new EmailConstraintCheck(dataSource);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, check::verify);
+            assertTrue(exception.getMessage().contains("db/uk_users_email.sql"));
+
+            jdbcTemplate.update("delete from users where id not in"
+                    + " (select kept_id from (select min(id) as kept_id from users group by email) kept)");
+            jdbcTemplate.execute("alter table users add constraint uk_users_email unique (email)");
+
+            check.verify();
+            assertEquals(2, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.MetricsConfig;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.service.impl.AdultAgeCutoff;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import com.clear_solutions.test_assignment.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@code @Timed} on the service classes, backed by the {@link MetricsConfig} aspect.
+ */
+public class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    public void checkTimedService_successFlow() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserServiceImpl(userRepository,
+                mock(UserChangeLog.class), mock(AdultAgeCutoff.class)));
+        // Class-based, as Spring Boot proxies the service beans
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        UserService userService = proxyFactory.getProxy();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(10))).thenReturn(List.of());
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        userService.getUsersPage(0, 10);
+        userService.getUsersPage(0, 10);
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
+
+        assertEquals(2, meterRegistry.get("user.service")
+                .tag("class", UserServiceImpl.class.getName())
+                .tag("method", "getUsersPage")
+                .tag("exception", "none")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("user.service")
+                .tag("method", "getUserById")
+                .tag("exception", "ResourceNotFoundException")
+                .timer().count());
+    }
+}
@@ -0,0 +1,139 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.RateLimitInterceptor;
+import com.clear_solutions.test_assignment.config.RequestCost;
+import com.clear_solutions.test_assignment.exception.RateLimitExceededException;
+import com.clear_solutions.test_assignment.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Buckets of 10 tokens refilled at 1 token per second and an in-flight budget
+ * of 6, so one full scan fits and a second one does not.
+ */
+public class RateLimitInterceptorTest {
+
+    private long nanoTime = -Duration.ofDays(1).toNanos();
+
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(() -> nanoTime, 10, 1, 1000, 6);
+
+    private final Endpoints endpoints = new Endpoints();
+
+    @Test
+    public void checkCostWeights_rateLimitedFlow() throws Exception {
+        complete(request("10.0.0.1"), "scan");
+        complete(request("10.0.0.1"), "scan");
+
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> complete(request("10.0.0.1"), "getById"));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(5, assertThrows(RateLimitExceededException.class,
+                () -> complete(request("10.0.0.1"), "scan")).getRetryAfterSeconds());
+
+        complete(request("10.0.0.2"), "scan");
+
+        advance(Duration.ofSeconds(1));
+        complete(request("10.0.0.1"), "getById");
+        assertThrows(RateLimitExceededException.class, () -> complete(request("10.0.0.1"), "getById"));
+    }
+
+    @Test
+    public void checkRefill_successFlow() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            complete(request("10.0.0.1"), "getById");
+        }
+        assertThrows(RateLimitExceededException.class, () -> complete(request("10.0.0.1"), "getById"));
+
+        advance(Duration.ofHours(1));
+        for (int i = 0; i < 10; i++) {
+            complete(request("10.0.0.1"), "getById");
+        }
+        assertThrows(RateLimitExceededException.class, () -> complete(request("10.0.0.1"), "getById"));
+    }
+
+    @Test
+    public void checkConcurrentCost_shedFlow() throws Exception {
+        MockHttpServletRequest scan = request("10.0.0.1");
+        assertTrue(interceptor.preHandle(scan, new MockHttpServletResponse(), handler("scan")));
+
+        assertThrows(ServiceOverloadedException.class, () -> complete(request("10.0.0.2"), "scan"));
+        complete(request("10.0.0.3"), "getById");
+        complete(request("10.0.0.4"), "stream");
+
+        interceptor.afterCompletion(scan, new MockHttpServletResponse(), handler("scan"), null);
+        complete(request("10.0.0.2"), "scan");
+    }
+
+    @Test
+    public void checkShedRequest_notChargedFlow() throws Exception {
+        MockHttpServletRequest scan = request("10.0.0.1");
+        assertTrue(interceptor.preHandle(scan, new MockHttpServletResponse(), handler("scan")));
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ServiceOverloadedException.class, () -> complete(request("10.0.0.2"), "scan"));
+        }
+        interceptor.afterCompletion(scan, new MockHttpServletResponse(), handler("scan"), null);
+
+        complete(request("10.0.0.2"), "scan");
+        complete(request("10.0.0.2"), "scan");
+        assertThrows(RateLimitExceededException.class, () -> complete(request("10.0.0.2"), "getById"));
+
+        // The rate-limited request gave its in-flight budget back, so all of it is free again
+        assertTrue(interceptor.preHandle(request("10.0.0.3"), new MockHttpServletResponse(), handler("scan")));
+        complete(request("10.0.0.4"), "getById");
+    }
+
+    @Test
+    public void checkAsyncRequest_heldUntilCompleteFlow() throws Exception {
+        MockHttpServletRequest export = request("10.0.0.1");
+        export.setAsyncSupported(true);
+        assertTrue(interceptor.preHandle(export, new MockHttpServletResponse(), handler("scan")));
+        export.startAsync();
+        interceptor.afterConcurrentHandlingStarted(export, new MockHttpServletResponse(), handler("scan"));
+
+        assertThrows(ServiceOverloadedException.class, () -> complete(request("10.0.0.2"), "scan"));
+
+        ((MockAsyncContext) export.getAsyncContext()).complete();
+        complete(request("10.0.0.2"), "scan");
+    }
+
+    private void advance(Duration duration) {
+        nanoTime += duration.toNanos();
+    }
+
+    private void complete(MockHttpServletRequest request, String endpoint) throws Exception {
+        HandlerMethod handler = handler(endpoint);
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+    }
+
+    private HandlerMethod handler(String endpoint) throws NoSuchMethodException {
+        return new HandlerMethod(endpoints, endpoint);
+    }
+
+    private static MockHttpServletRequest request(String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    static class Endpoints {
+
+        @RequestCost(5)
+        public void scan() {
+        }
+
+        public void getById() {
+        }
+
+        @RequestCost(value = 1, concurrent = false)
+        public void stream() {
+        }
+    }
+}
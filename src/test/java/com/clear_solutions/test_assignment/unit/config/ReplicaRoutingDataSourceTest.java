@@ -0,0 +1,214 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes between three in-memory H2 databases standing in for the primary
+ * and two replicas; each one only knows its own name.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    public void beforeEach() {
+        dataSources.add(database("primary"));
+        dataSources.add(database("replica-0"));
+        dataSources.add(database("replica-1"));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        RequestContextHolder.resetRequestAttributes();
+        if (entityManagerFactory != null) {
+            entityManagerFactory.close();
+        }
+        dataSources.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    public void checkRoundRobin_successFlow() {
+        route(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN);
+
+        assertEquals(List.of("replica-0", "replica-1", "replica-0"), List.of(readOnlyName(), readOnlyName(), readOnlyName()));
+        assertEquals("primary", readWrite.execute(status -> name()));
+        assertEquals("primary", name());
+    }
+
+    @Test
+    public void checkLeastConnections_successFlow() throws Exception {
+        route(ReplicaRoutingDataSource.Balancing.LEAST_CONNECTIONS);
+
+        try (Connection busy = dataSources.get(1).getConnection()) {
+            assertEquals(List.of("replica-1", "replica-1"), List.of(readOnlyName(), readOnlyName()));
+        }
+    }
+
+    @Test
+    public void checkReadYourWrites_successFlow() {
+        route(ReplicaRoutingDataSource.Balancing.ROUND_ROBIN);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals("replica-0", readOnlyName());
+        assertEquals("primary", readWrite.execute(status -> name()));
+        assertEquals("primary", readOnlyName());
+        assertEquals("primary", readWrite.execute(status -> readOnly.execute(inner -> name())));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica-1", readOnlyName());
+    }
+
+    @Test
+    public void checkJpaReadThenWrite_successFlow() {
+        routeJpa();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals("replica-0", readOnly.execute(status -> jpaName(entityManager)));
+        readWrite.executeWithoutResult(status -> entityManager.persist(new Node("written")));
+
+        assertEquals(List.of("primary", "written"), names(dataSources.get(0)));
+        assertEquals(List.of("replica-0"), names(dataSources.get(1)));
+    }
+
+    /**
+     * Why {@code spring.jpa.open-in-view} is off: an entity manager held for the
+     * whole request keeps the connection its first transaction was routed to.
+     */
+    @Test
+    public void checkJpaOpenInView_firstTransactionRoutesRequest() {
+        routeJpa();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            assertEquals("replica-0", readOnly.execute(status -> jpaName(entityManager)));
+            readWrite.executeWithoutResult(status -> entityManager.persist(new Node("written")));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+
+        assertEquals(List.of("primary"), names(dataSources.get(0)));
+        assertEquals(List.of("replica-0", "written"), names(dataSources.get(1)));
+    }
+
+    private void route(ReplicaRoutingDataSource.Balancing balancing) {
+        routingDataSource = new ReplicaRoutingDataSource(dataSources.get(0), dataSources.subList(1, 3), balancing);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    /**
+     * Hibernate over the routing data source with the connection handling
+     * Spring Boot configures, and transactions run by {@link JpaTransactionManager}.
+     */
+    private void routeJpa() {
+        routingDataSource = new ReplicaRoutingDataSource(dataSources.get(0), dataSources.subList(1, 3),
+                ReplicaRoutingDataSource.Balancing.ROUND_ROBIN);
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new LazyConnectionDataSourceProxy(routingDataSource));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(Node.class.getName()));
+        factoryBean.setJpaPropertyMap(Map.of(
+                AvailableSettings.DIALECT, H2Dialect.class.getName(),
+                AvailableSettings.CONNECTION_HANDLING, PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_HOLD));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private static String jpaName(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+    }
+
+    private static List<String> names(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForList("SELECT name FROM node ORDER BY name", String.class);
+    }
+
+    private String readOnlyName() {
+        return readOnly.execute(status -> name());
+    }
+
+    private String name() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(name);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @Entity
+    @Table(name = "node")
+    static class Node {
+
+        @Id
+        private String name;
+
+        protected Node() {
+        }
+
+        Node(String name) {
+            this.name = name;
+        }
+    }
+}
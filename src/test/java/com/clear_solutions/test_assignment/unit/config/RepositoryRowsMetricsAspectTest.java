@@ -0,0 +1,51 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.RepositoryRowsMetricsAspect;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RepositoryRowsMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserRepository target = mock(UserRepository.class);
+
+    @Test
+    public void checkRecordRows_successFlow() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new RepositoryRowsMetricsAspect(meterRegistry));
+        UserRepository userRepository = proxyFactory.getProxy();
+        when(target.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(3)))
+                .thenReturn(List.of(new User(), new User(), new User()));
+        when(target.findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(3))).thenReturn(List.of(new User()));
+        when(target.findByEmail("john@gmail.com")).thenReturn(Optional.empty());
+        when(target.existsByEmail("john@gmail.com")).thenReturn(true);
+
+        userRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(3));
+        userRepository.findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(3));
+        userRepository.findByEmail("john@gmail.com");
+        userRepository.existsByEmail("john@gmail.com");
+
+        DistributionSummary page = meterRegistry.get("user.repository.rows")
+                .tag("method", "findByIdGreaterThanOrderByIdAsc").summary();
+        assertEquals(2, page.count());
+        assertEquals(4, page.totalAmount());
+        assertEquals(3, page.max());
+        DistributionSummary byEmail = meterRegistry.get("user.repository.rows").tag("method", "findByEmail").summary();
+        assertEquals(1, byEmail.count());
+        assertEquals(0, byEmail.totalAmount());
+        // Scalar results are not rows
+        assertNull(meterRegistry.find("user.repository.rows").tag("method", "existsByEmail").summary());
+    }
+}
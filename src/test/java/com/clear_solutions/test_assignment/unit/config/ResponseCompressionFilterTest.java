@@ -0,0 +1,194 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.clear_solutions.test_assignment.config.ResponseCompressionFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ResponseCompressionFilterTest {
+
+    private static final byte[] LARGE_BODY = "{\"firstName\":\"Bob\",\"lastName\":\"Smith\"},"
+            .repeat(100).getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] SMALL_BODY = "{\"firstName\":\"Bob\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(serverProperties(), 4);
+
+    @Test
+    public void checkLargeBody_compressedFlow() throws Exception {
+        MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE, LARGE_BODY, "gzip, deflate, br");
+
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        byte[] compressed = response.getContentAsByteArray();
+        assertTrue(compressed.length < LARGE_BODY.length / 10);
+        assertArrayEquals(LARGE_BODY, Decoder.decompress(compressed).getDecompressedData());
+    }
+
+    @Test
+    public void checkStrongEtag_weakenedFlow() throws Exception {
+        for (String acceptEncoding : new String[]{"br", "gzip"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+                filteredResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                ((HttpServletResponse) filteredResponse).setHeader(HttpHeaders.ETAG, "\"3\"");
+                filteredResponse.getOutputStream().write(LARGE_BODY);
+            });
+
+            assertEquals(acceptEncoding.equals("br") ? "W/\"3\"" : "\"3\"", response.getHeader(HttpHeaders.ETAG));
+        }
+    }
+
+    @Test
+    public void checkSmallBody_uncompressedFlow() throws Exception {
+        MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE, SMALL_BODY, "br");
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(SMALL_BODY.length, response.getContentLength());
+        assertArrayEquals(SMALL_BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void checkSmallBodyFlushedWithoutLength_uncompressedFlow() throws Exception {
+        for (String acceptEncoding : new String[]{"gzip", "br"}) {
+            MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE, SMALL_BODY, acceptEncoding, false);
+
+            assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertEquals(SMALL_BODY.length, response.getContentLength());
+            assertArrayEquals(SMALL_BODY, response.getContentAsByteArray());
+        }
+    }
+
+    @Test
+    public void checkEventStreamFlush_passedThroughFlow() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/changes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (filteredRequest, filteredResponse) -> {
+            filteredResponse.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            filteredResponse.getOutputStream().write(SMALL_BODY);
+            filteredResponse.getOutputStream().flush();
+
+            assertTrue(response.isCommitted());
+            assertArrayEquals(SMALL_BODY, response.getContentAsByteArray());
+        };
+        filter.doFilter(request, response, chain);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void checkWriteListener_passedThroughFlow() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/export");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+        List<WriteListener> writeListeners = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                ServletOutputStream outputStream = super.getOutputStream();
+                return new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        writeListeners.add(writeListener);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        outputStream.write(b);
+                    }
+                };
+            }
+        };
+        WriteListener writeListener = mock(WriteListener.class);
+        filter.doFilter(request, response, (filteredRequest, filteredResponse) -> {
+            filteredResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ServletOutputStream outputStream = filteredResponse.getOutputStream();
+            outputStream.write(SMALL_BODY);
+            outputStream.setWriteListener(writeListener);
+            outputStream.write(LARGE_BODY);
+        });
+
+        assertEquals(List.of(writeListener), writeListeners);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        byte[] expected = new byte[SMALL_BODY.length + LARGE_BODY.length];
+        System.arraycopy(SMALL_BODY, 0, expected, 0, SMALL_BODY.length);
+        System.arraycopy(LARGE_BODY, 0, expected, SMALL_BODY.length, LARGE_BODY.length);
+        assertArrayEquals(expected, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void checkNotAccepted_uncompressedFlow() throws Exception {
+        for (String acceptEncoding : new String[]{null, "gzip", "br;q=0", "br;q=", "br;q=abc", "br;q=NaN"}) {
+            MockHttpServletResponse response = filter(MediaType.APPLICATION_JSON_VALUE, LARGE_BODY, acceptEncoding);
+
+            assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+        }
+    }
+
+    @Test
+    public void checkIncompressibleType_uncompressedFlow() throws Exception {
+        MockHttpServletResponse response = filter(MediaType.TEXT_EVENT_STREAM_VALUE, LARGE_BODY, "br");
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse filter(String contentType, byte[] body, String acceptEncoding) throws Exception {
+        return filter(contentType, body, acceptEncoding, true);
+    }
+
+    /**
+     * Writes the body the way message converters do: flushing once it is written.
+     */
+    private MockHttpServletResponse filter(String contentType, byte[] body, String acceptEncoding,
+                                           boolean withLength) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (filteredRequest, filteredResponse) -> {
+            filteredResponse.setContentType(contentType);
+            if (withLength) {
+                filteredResponse.setContentLength(body.length);
+            }
+            filteredResponse.getOutputStream().write(body);
+            filteredResponse.getOutputStream().flush();
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static ServerProperties serverProperties() {
+        ServerProperties serverProperties = new ServerProperties();
+        serverProperties.getCompression().setMimeTypes(new String[]{"application/json", "application/x-ndjson"});
+        serverProperties.getCompression().setMinResponseSize(DataSize.ofKilobytes(2));
+        return serverProperties;
+    }
+}
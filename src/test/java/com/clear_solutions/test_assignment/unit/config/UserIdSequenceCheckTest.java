@@ -0,0 +1,63 @@
+package com.clear_solutions.test_assignment.unit.config;
+
+import com.clear_solutions.test_assignment.config.UserIdSequenceCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A users table filled while ids were {@code IDENTITY}, next to the
+ * {@code users_seq} table {@code ddl-auto=update} creates, before and after
+ * {@code db/users_seq.sql}.
+ */
+public class UserIdSequenceCheckTest {
+
+    @Test
+    public void checkUnseededSequence_failedFlow() throws Exception {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:users-seq;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("create table users (id bigint primary key, email varchar(255) not null)");
+            jdbcTemplate.update("insert into users values (1, 'john@example.com'), (2, 'jane@example.com'),"
+                    + " (250, 'jack@example.com')");
+            jdbcTemplate.execute("create table users_seq (next_val bigint)");
+            jdbcTemplate.update("insert into users_seq values (1)");
+            UserIdSequenceCheck check = new UserIdSequenceCheck(dataSource);
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, check::verify);
+            assertTrue(exception.getMessage().contains("db/users_seq.sql"));
+
+            jdbcTemplate.update("update users_seq set next_val = (select coalesce(max(id), 0) + 100 from users)");
+
+            check.verify();
+            assertEquals(350L, jdbcTemplate.queryForObject("select next_val from users_seq", Long.class));
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    public void checkAdvancedSequence_successFlow() throws Exception {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:users-seq-advanced;MODE=MySQL;DATABASE_TO_LOWER=TRUE", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("create table users (id bigint primary key, email varchar(255) not null)");
+            jdbcTemplate.execute("create table users_seq (next_val bigint)");
+            UserIdSequenceCheck check = new UserIdSequenceCheck(dataSource);
+
+            jdbcTemplate.update("insert into users_seq values (1)");
+            check.verify();
+
+            // Blocks 1..100 and 101..200 handed out, the next read reserves 201..300
+            jdbcTemplate.update("insert into users values (1, 'john@example.com'), (200, 'jane@example.com')");
+            jdbcTemplate.update("update users_seq set next_val = 300");
+            check.verify();
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.clear_solutions.test_assignment.unit.controller;
+
+import com.clear_solutions.test_assignment.controller.ReactiveUserController;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.service.ReactiveUserService;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveUserController.class)
+@ActiveProfiles("reactive")
+@Import(UserDTOValidator.class)
+public class ReactiveUserControllerTest {
+
+    @MockBean
+    private ReactiveUserService reactiveUserService;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private UserMapper mapper;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private static final String URL = "/api/users";
+
+    private static final User TEST_USER = User.builder()
+            .id(1L)
+            .email("test1@gmail.com")
+            .firstName("Bob")
+            .lastName("Smith")
+            .birthDate(LocalDate.of(1980, 11, 20))
+            .address("New_York")
+            .phoneNumber(12345678)
+            .version(3)
+            .build();
+
+    private static final UserDTO TEST_USER_DTO = new UserMapper().toDto(TEST_USER);
+
+    @AfterEach
+    void afterEach() {
+        verifyNoMoreInteractions(reactiveUserService, userService, mapper);
+    }
+
+    @Test
+    public void checkAllUsers_ndjsonFlow() {
+        User secondUser = User.builder().id(2L).email("test2@gmail.com").build();
+        UserDTO secondUserDto = new UserMapper().toDto(secondUser);
+        when(reactiveUserService.getAllUsers()).thenReturn(Flux.just(TEST_USER, secondUser));
+        when(mapper.toDto(TEST_USER)).thenReturn(TEST_USER_DTO);
+        when(mapper.toDto(secondUser)).thenReturn(secondUserDto);
+
+        webTestClient.get().uri(URL)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(UserDTO.class)
+                .hasSize(2)
+                .contains(TEST_USER_DTO, secondUserDto);
+
+        verify(reactiveUserService).getAllUsers();
+        verify(mapper).toDto(TEST_USER);
+        verify(mapper).toDto(secondUser);
+    }
+
+    @Test
+    public void checkSaveUser_successFlow() {
+        User userForCreate = new UserMapper().toEntity(TEST_USER_DTO);
+        when(userService.isAdultUser(TEST_USER_DTO.getBirthDate())).thenReturn(true);
+        when(mapper.toEntity(TEST_USER_DTO)).thenReturn(userForCreate);
+        when(reactiveUserService.saveUser(userForCreate)).thenReturn(Mono.just(TEST_USER));
+        when(mapper.toDto(TEST_USER)).thenReturn(TEST_USER_DTO);
+
+        webTestClient.post().uri(URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TEST_USER_DTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(TEST_USER.getFirstName());
+
+        verify(userService).isAdultUser(TEST_USER_DTO.getBirthDate());
+        verify(mapper).toEntity(TEST_USER_DTO);
+        verify(reactiveUserService).saveUser(userForCreate);
+        verify(mapper).toDto(TEST_USER);
+    }
+
+    @Test
+    public void checkSaveUser_validationFlow() {
+        UserDTO invalidUserDto = new UserMapper().toDto(TEST_USER);
+        invalidUserDto.setEmail("not an email");
+
+        webTestClient.post().uri(URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidUserDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.length()").isEqualTo(1)
+                .jsonPath("$.errors[0]").isEqualTo("Email is not valid");
+    }
+
+    @Test
+    public void checkUserById_notModifiedFlow() {
+        when(reactiveUserService.getUserById(TEST_USER.getId())).thenReturn(Mono.just(TEST_USER));
+
+        webTestClient.get().uri(URL + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+        verify(reactiveUserService).getUserById(TEST_USER.getId());
+    }
+
+    @Test
+    public void checkDeleteUser_notFoundFlow() {
+        when(reactiveUserService.deleteUser(TEST_USER.getId(), 3L))
+                .thenReturn(Mono.error(new ResourceNotFoundException("User", "Id", TEST_USER.getId())));
+
+        webTestClient.delete().uri(URL + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("User not found with Id : '1'");
+
+        verify(reactiveUserService).deleteUser(TEST_USER.getId(), 3L);
+    }
+
+    @Test
+    public void checkDeleteUser_etagListFlow() {
+        when(reactiveUserService.getUserById(TEST_USER.getId())).thenReturn(Mono.just(TEST_USER));
+        when(reactiveUserService.deleteUser(TEST_USER.getId(), 3L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri(URL + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"2\", \"3\"")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(reactiveUserService).getUserById(TEST_USER.getId());
+        verify(reactiveUserService).deleteUser(TEST_USER.getId(), 3L);
+    }
+}
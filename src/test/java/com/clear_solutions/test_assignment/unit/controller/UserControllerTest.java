@@ -1,38 +1,80 @@
 package com.clear_solutions.test_assignment.unit.controller;
 
+import com.clear_solutions.test_assignment.config.UserProtobufHttpMessageConverter;
 import com.clear_solutions.test_assignment.controller.UserController;
+import com.clear_solutions.test_assignment.dto.BirthMonthCountDTO;
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+import com.clear_solutions.test_assignment.dto.BulkUserRequestDTO;
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+import com.clear_solutions.test_assignment.dto.ImportRequestDTO;
 import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.PreconditionFailedException;
 import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.exception.SearchQueryException;
 import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.mapper.UserProtobufEncoder;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserView;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserBulkService;
+import com.clear_solutions.test_assignment.service.UserChangeService;
+import com.clear_solutions.test_assignment.service.UserImportService;
 import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedOutputStream;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.hamcrest.core.StringEndsWith.endsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest(value = UserController.class)
+@Import(UserDTOValidator.class)
 public class UserControllerTest {
 
     @MockBean
     private UserService userService;
     @MockBean
+    private UserBatchService userBatchService;
+    @MockBean
+    private UserBulkService userBulkService;
+    @MockBean
+    private UserImportService userImportService;
+    @MockBean
+    private UserChangeService userChangeService;
+    @MockBean
     private UserMapper mapper;
 
     @Autowired
@@ -40,6 +82,8 @@ public class UserControllerTest {
 
     private String url = "/api/users";
 
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
     private static final User TEST_USER;
     private static final UserDTO TEST_USER_DTO;
     private static final User TEST_USER_FOR_CREATE;
@@ -120,6 +164,268 @@ public class UserControllerTest {
         verify(mapper).toDtoList(List.of(TEST_USER));
     }
 
+    @SneakyThrows
+    @Test
+    public void checkAllUsers_cborFlow() {
+        when(userService.getAllUsers()).thenReturn(List.of(TEST_USER));
+        when(mapper.toDtoList(List.of(TEST_USER))).thenReturn(List.of(TEST_USER_DTO));
+
+        byte[] body = mockMvc.perform(get(url).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-1-cbor\"")))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        CBORMapper cborMapper = new CBORMapper();
+        cborMapper.findAndRegisterModules();
+        assertArrayEquals(new UserDTO[]{TEST_USER_DTO}, cborMapper.readValue(body, UserDTO[].class));
+
+        verify(userService).getAllUsers();
+        verify(mapper).toDtoList(List.of(TEST_USER));
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkAllUsers_protobufFlow() {
+        when(userService.getAllUsers()).thenReturn(List.of(TEST_USER, TEST_USER));
+        when(mapper.toDtoList(List.of(TEST_USER, TEST_USER))).thenReturn(List.of(TEST_USER_DTO, TEST_USER_DTO));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(expected);
+        UserProtobufEncoder.writeDelimited(TEST_USER_DTO, output);
+        UserProtobufEncoder.writeDelimited(TEST_USER_DTO, output);
+        output.flush();
+
+        mockMvc.perform(get(url).accept(UserProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(UserProtobufHttpMessageConverter.DELIMITED_PROTOBUF))
+                .andExpect(content().bytes(expected.toByteArray()));
+
+        verify(userService).getAllUsers();
+        verify(mapper).toDtoList(List.of(TEST_USER, TEST_USER));
+    }
+
+    /**
+     * Full listings cost 20 of the 200 tokens a client may burst, so roughly
+     * ten get through before the client is turned away.
+     */
+    @SneakyThrows
+    @Test
+    public void checkAllUsers_rateLimitedFlow() {
+        when(userService.getAllUsers()).thenReturn(List.of(TEST_USER));
+        when(mapper.toDtoList(List.of(TEST_USER))).thenReturn(List.of(TEST_USER_DTO));
+        RequestPostProcessor client = request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        };
+
+        int served = 0;
+        MvcResult result;
+        while ((result = mockMvc.perform(get(url).with(client)).andReturn()).getResponse().getStatus() == 200) {
+            served++;
+        }
+
+        assertTrue(served >= 10 && served < 20);
+        assertEquals(429, result.getResponse().getStatus());
+        assertEquals("1", result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"message\":\"Too many requests\"}", result.getResponse().getContentAsString());
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk());
+
+        verify(userService, times(served + 1)).getAllUsers();
+        verify(mapper, times(served + 1)).toDtoList(List.of(TEST_USER));
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkUsersPage_successFlow() {
+        when(userService.getUsersPage(0L, 1)).thenReturn(List.of(TEST_USER));
+        when(mapper.toDtoList(List.of(TEST_USER))).thenReturn(List.of(TEST_USER_DTO));
+
+        String body = mockMvc.perform(get(url).param("limit", "1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(TEST_USER.getId()))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String nextCursor = new ObjectMapper().readTree(body).get("nextCursor").asText();
+
+        when(userService.getUsersPage(TEST_USER.getId(), 1)).thenReturn(List.of());
+        when(mapper.toDtoList(List.of())).thenReturn(List.of());
+
+        mockMvc.perform(get(url).param("limit", "1").param("after", nextCursor)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(userService).getUsersPage(0L, 1);
+        verify(userService).getUsersPage(TEST_USER.getId(), 1);
+        verify(mapper).toDtoList(List.of(TEST_USER));
+        verify(mapper).toDtoList(List.of());
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkUsersPage_invalidCursorFlow() {
+        mockMvc.perform(get(url).param("limit", "10").param("after", "not a cursor")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid page cursor"));
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkExportUsers_successFlow() {
+        UserView view = mock(UserView.class);
+        doAnswer(invocation -> {
+            Consumer<UserView> consumer = invocation.getArgument(0);
+            consumer.accept(view);
+            consumer.accept(view);
+            return null;
+        }).when(userService).exportUsers(any());
+        when(mapper.toDto(view)).thenReturn(TEST_USER_DTO);
+
+        MvcResult result = mockMvc.perform(get(url + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String line = mapToJson(TEST_USER_DTO);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+
+        verify(userService).exportUsers(any());
+        verify(mapper, times(2)).toDto(view);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkUserByEmail_successFlow() {
+        when(userService.getUserByEmail(TEST_USER.getEmail())).thenReturn(TEST_USER);
+        when(mapper.toDto(TEST_USER)).thenReturn(TEST_USER_DTO);
+
+        mockMvc.perform(get(url + "/by-email/" + TEST_USER.getEmail()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(TEST_USER.getEmail()));
+
+        verify(userService).getUserByEmail(TEST_USER.getEmail());
+        verify(mapper).toDto(TEST_USER);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkCreateUser_duplicateEmailFlow() {
+        when(userService.isAdultUser(TEST_USER_FOR_CREATE.getBirthDate())).thenReturn(true);
+        when(mapper.toEntity(TEST_USER_DTO_FOR_CREATE)).thenReturn(TEST_USER_FOR_CREATE);
+        when(userService.saveUser(TEST_USER_FOR_CREATE)).thenThrow(new DuplicateEmailException());
+
+        mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapToJson(TEST_USER_DTO_FOR_CREATE)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Email is already registered"));
+
+        verify(userService).isAdultUser(TEST_USER_FOR_CREATE.getBirthDate());
+        verify(userService).saveUser(TEST_USER_FOR_CREATE);
+        verify(mapper).toEntity(TEST_USER_DTO_FOR_CREATE);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkBulkDelete_successFlow() {
+        BulkUserRequestDTO request = BulkUserRequestDTO.builder().ids(List.of(1L, 2L)).build();
+        BulkJobDTO job = new BulkJobDTO("job-1", "DELETE", "RUNNING", 0, 0, 0, null, null, null);
+        when(userBulkService.startDelete(request)).thenReturn(job);
+
+        mockMvc.perform(post(url + "/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapToJson(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/users/bulk-jobs/job-1"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+
+        verify(userBulkService).startDelete(request);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkImportUsers_successFlow() {
+        ImportRequestDTO request = new ImportRequestDTO("users.csv", null);
+        ImportJobDTO job = new ImportJobDTO("job-1", "users.csv", "CSV", "RUNNING", 0, 0, 0, 0, 0,
+                "users.csv.errors.ndjson", null, null, null);
+        when(userImportService.startImport(request)).thenReturn(job);
+
+        mockMvc.perform(post(url + "/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapToJson(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/users/import-jobs/job-1"))
+                .andExpect(jsonPath("$.format").value("CSV"));
+
+        verify(userImportService).startImport(request);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkSearchUsers_successFlow() {
+        when(userService.searchUsers("bob", 0, 100)).thenReturn(List.of(TEST_USER));
+        when(mapper.toDtoList(List.of(TEST_USER))).thenReturn(List.of(TEST_USER_DTO));
+
+        mockMvc.perform(get(url + "/search").param("q", "bob").param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(TEST_USER.getId()));
+
+        verify(userService).searchUsers("bob", 0, 100);
+        verify(mapper).toDtoList(List.of(TEST_USER));
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkSearchUsers_tooDeepFlow() {
+        for (String page : new String[]{"50", "200000000"}) {
+            mockMvc.perform(get(url + "/search").param("q", "bob").param("page", page))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Search results are limited to the first 1000 matches"));
+        }
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkSearchUsers_shortTokenFlow() {
+        when(userService.searchUsers("bo", 0, 20))
+                .thenThrow(new SearchQueryException("Search terms must be at least 3 characters long"));
+
+        mockMvc.perform(get(url + "/search").param("q", "bo"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search terms must be at least 3 characters long"));
+
+        verify(userService).searchUsers("bo", 0, 20);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkUserStats_successFlow() {
+        Map<String, Long> ageBrackets = new LinkedHashMap<>();
+        ageBrackets.put("0-17", 0L);
+        ageBrackets.put("18-29", 1L);
+        UserStatsDTO stats = new UserStatsDTO(LocalDate.of(2023, 10, 1), 1, ageBrackets,
+                List.of(new BirthMonthCountDTO(1995, 6, 1)));
+        when(userService.getUserStats()).thenReturn(stats);
+
+        mockMvc.perform(get(url + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.ageBrackets.18-29").value(1))
+                .andExpect(jsonPath("$.birthMonths[0].month").value(6));
+
+        verify(userService).getUserStats();
+    }
+
     @SneakyThrows
     @Test
     public void checkUserById_successFlow() {
@@ -135,6 +441,48 @@ public class UserControllerTest {
         verify(mapper).toDto(TEST_USER);
     }
 
+    @SneakyThrows
+    @Test
+    public void checkUserById_notModifiedFlow() {
+        when(userService.getUserById(TEST_USER.getId())).thenReturn(TEST_USER);
+
+        mockMvc.perform(get(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + TEST_USER.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + TEST_USER.getVersion() + "\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(userService).getUserById(TEST_USER.getId());
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkUserById_representationEtagFlow() {
+        when(userService.getUserById(TEST_USER.getId())).thenReturn(TEST_USER);
+        when(mapper.toDto(TEST_USER)).thenReturn(TEST_USER_DTO);
+        String jsonEtag = "\"" + TEST_USER.getVersion() + "\"";
+        String cborEtag = "\"" + TEST_USER.getVersion() + "-cbor\"";
+
+        mockMvc.perform(get(url + "/" + TEST_USER.getId()).accept(CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, cborEtag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mockMvc.perform(get(url + "/" + TEST_USER.getId()).accept(CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, cborEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, jsonEtag));
+
+        verify(userService, times(3)).getUserById(TEST_USER.getId());
+        verify(mapper, times(2)).toDto(TEST_USER);
+    }
+
     @SneakyThrows
     @Test
     public void checkUserById_errorFlow() {
@@ -180,10 +528,24 @@ public class UserControllerTest {
         verify(userService).isAdultUser(WRONG_TEST_USER_DTO_FOR_CREATE.getBirthDate());
     }
 
+    @SneakyThrows
+    @Test
+    public void checkCreateUser_validationErrorFlow() {
+        UserDTO invalidUserDto = new UserMapper().toDto(TEST_USER_FOR_CREATE);
+        invalidUserDto.setEmail("not an email");
+
+        mockMvc.perform(post(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapToJson(invalidUserDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value("Email is not valid"));
+    }
+
     @SneakyThrows
     @Test
     public void checkUpdateUser_successFlow() {
-        when(userService.updateUser(TEST_USER, TEST_USER.getId())).thenReturn(TEST_USER);
+        when(userService.updateUser(TEST_USER, TEST_USER.getId(), null)).thenReturn(TEST_USER);
         when(mapper.toDto(TEST_USER)).thenReturn(TEST_USER_DTO);
         when(mapper.toEntity(TEST_USER_DTO)).thenReturn(TEST_USER);
 
@@ -194,7 +556,7 @@ public class UserControllerTest {
                 .andExpect((jsonPath("$.id").value(TEST_USER.getId())))
                 .andExpect(jsonPath("$.firstName").value(TEST_USER.getFirstName()));
 
-        verify(userService).updateUser(TEST_USER, TEST_USER.getId());
+        verify(userService).updateUser(TEST_USER, TEST_USER.getId(), null);
         verify(mapper).toDto(TEST_USER);
         verify(mapper).toEntity(TEST_USER_DTO);
     }
@@ -203,7 +565,7 @@ public class UserControllerTest {
     @Test
     public void checkUpdateUser_errorFlow() {
         when(mapper.toEntity(TEST_USER_DTO_FOR_CREATE)).thenReturn(TEST_USER_FOR_CREATE);
-        when(userService.updateUser(TEST_USER_FOR_CREATE, FAKE_ID)).thenThrow(ResourceNotFoundException.class);
+        when(userService.updateUser(TEST_USER_FOR_CREATE, FAKE_ID, null)).thenThrow(ResourceNotFoundException.class);
 
         mockMvc.perform(put(url + "/" + FAKE_ID)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -211,33 +573,145 @@ public class UserControllerTest {
                 .andExpect(status().isNotFound());
 
         verify(mapper).toEntity(TEST_USER_DTO_FOR_CREATE);
-        verify(userService).updateUser(TEST_USER_FOR_CREATE, FAKE_ID);
+        verify(userService).updateUser(TEST_USER_FOR_CREATE, FAKE_ID, null);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkPatchUser_successFlow() {
+        User existingUser = copyOf(TEST_USER);
+        when(userService.patchUser(eq(TEST_USER.getId()), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<User> patch = invocation.getArgument(2);
+            patch.accept(existingUser);
+            return existingUser;
+        });
+        when(mapper.toDto(existingUser)).thenReturn(new UserMapper().toDto(TEST_USER));
+
+        mockMvc.perform(patch(url + "/" + TEST_USER.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"address\":\"Boston\",\"id\":42}"))
+                .andExpect(status().isOk());
+
+        UserDTO patchedDto = new UserMapper().toDto(TEST_USER);
+        patchedDto.setAddress("Boston");
+        verify(userService).patchUser(eq(TEST_USER.getId()), isNull(), any());
+        verify(mapper, times(2)).toDto(existingUser);
+        verify(mapper).copyToEntity(patchedDto, existingUser);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkPatchUser_errorFlow() {
+        User existingUser = copyOf(TEST_USER);
+        when(userService.patchUser(eq(TEST_USER.getId()), isNull(), any())).thenAnswer(invocation -> {
+            Consumer<User> patch = invocation.getArgument(2);
+            patch.accept(existingUser);
+            return existingUser;
+        });
+        when(mapper.toDto(existingUser)).thenReturn(new UserMapper().toDto(TEST_USER));
+
+        mockMvc.perform(patch(url + "/" + TEST_USER.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"firstName\":\"B0b\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0]").value("Invalid Input"));
+
+        verify(userService).patchUser(eq(TEST_USER.getId()), isNull(), any());
+        verify(mapper).toDto(existingUser);
     }
 
     @SneakyThrows
     @Test
     public void checkDeleteUser_successFlow() {
-        doNothing().when(userService).deleteUser(TEST_USER.getId());
+        doNothing().when(userService).deleteUser(TEST_USER.getId(), null);
 
         mockMvc.perform(delete(url + "/" + TEST_USER.getId())
                 .contentType(MediaType.APPLICATION_JSON_VALUE))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").value("User has been deleted"));
 
-        verify(userService).deleteUser(TEST_USER.getId());
+        verify(userService).deleteUser(TEST_USER.getId(), null);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkDeleteUser_preconditionFailedFlow() {
+        doThrow(new PreconditionFailedException("User has been modified"))
+                .when(userService).deleteUser(TEST_USER.getId(), 3L);
+
+        mockMvc.perform(delete(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("User has been modified"));
+
+        verify(userService).deleteUser(TEST_USER.getId(), 3L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkDeleteUser_representationEtagFlow() {
+        doNothing().when(userService).deleteUser(TEST_USER.getId(), 3L);
+
+        mockMvc.perform(delete(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"3-cbor\""))
+                .andExpect(status().isOk());
+
+        verify(userService).deleteUser(TEST_USER.getId(), 3L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkDeleteUser_etagListFlow() {
+        User currentUser = copyOf(TEST_USER);
+        currentUser.setVersion(3);
+        when(userService.getUserById(TEST_USER.getId())).thenReturn(currentUser);
+        doNothing().when(userService).deleteUser(TEST_USER.getId(), 3L);
+
+        mockMvc.perform(delete(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"2\", \"3-cbor\""))
+                .andExpect(status().isOk());
+
+        verify(userService).getUserById(TEST_USER.getId());
+        verify(userService).deleteUser(TEST_USER.getId(), 3L);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkDeleteUser_etagListPreconditionFailedFlow() {
+        User currentUser = copyOf(TEST_USER);
+        currentUser.setVersion(3);
+        when(userService.getUserById(TEST_USER.getId())).thenReturn(currentUser);
+
+        mockMvc.perform(delete(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "\"1\", W/\"3\", \"2\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("User has been modified"));
+        mockMvc.perform(delete(url + "/" + TEST_USER.getId())
+                .header(HttpHeaders.IF_MATCH, "W/\"3\", \"abc\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userService).getUserById(TEST_USER.getId());
     }
 
     @SneakyThrows
     @Test
     public void checkDeleteUser_errorFlow() {
-        doThrow(new ResourceNotFoundException("User", "Id", FAKE_ID)).when(userService).deleteUser(FAKE_ID);
+        doThrow(new ResourceNotFoundException("User", "Id", FAKE_ID)).when(userService).deleteUser(FAKE_ID, null);
 
         mockMvc.perform(delete(url + "/" + FAKE_ID)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(String.format("User not found with Id : '%s'", FAKE_ID)));
 
-        verify(userService).deleteUser(FAKE_ID);
+        verify(userService).deleteUser(FAKE_ID, null);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        new UserMapper().copyToEntity(new UserMapper().toDto(user), copy);
+        copy.setId(user.getId());
+        return copy;
     }
 
     private String mapToJson(Object obj) throws JsonProcessingException {
@@ -0,0 +1,26 @@
+package com.clear_solutions.test_assignment.unit.exception;
+
+import com.clear_solutions.test_assignment.exception.ClientErrorException;
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.RateLimitExceededException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientErrorExceptionTest {
+
+    @Test
+    public void checkClientErrors_captureNoStackTrace() {
+        List<ClientErrorException> exceptions = List.of(new ResourceNotFoundException("User", "Id", 1L),
+                new DuplicateEmailException(), new RateLimitExceededException(1));
+        for (ClientErrorException exception : exceptions) {
+            assertEquals(0, exception.getStackTrace().length, exception.getClass().getSimpleName());
+            exception.addSuppressed(new IllegalStateException());
+            assertEquals(0, exception.getSuppressed().length, exception.getClass().getSimpleName());
+        }
+        assertEquals("User not found with Id : '1'", exceptions.get(0).getMessage());
+    }
+}
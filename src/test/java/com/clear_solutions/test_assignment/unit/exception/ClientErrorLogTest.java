@@ -0,0 +1,80 @@
+package com.clear_solutions.test_assignment.unit.exception;
+
+import com.clear_solutions.test_assignment.exception.ClientErrorLog;
+import com.clear_solutions.test_assignment.exception.RangeDateException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+public class ClientErrorLogTest {
+
+    private long nanoTime = -Duration.ofDays(1).toNanos();
+
+    private final Logger logger = mock(Logger.class);
+
+    private final ClientErrorLog clientErrorLog = new ClientErrorLog(() -> nanoTime, logger, 2);
+
+    private final RangeDateException exception = new RangeDateException("Bad range");
+
+    @BeforeEach
+    public void beforeEach() {
+        when(logger.isWarnEnabled()).thenReturn(true);
+    }
+
+    @Test
+    public void checkWarn_limitsLinesPerSecond() {
+        for (int i = 0; i < 5; i++) {
+            clientErrorLog.warn(exception, "Bad range");
+        }
+        verify(logger, times(2)).warn("{}: {}", "RangeDateException", "Bad range");
+
+        advance(Duration.ofSeconds(1));
+        clientErrorLog.warn(exception, "Bad range");
+
+        verify(logger).warn("Suppressed {} client error log lines", 3);
+        verify(logger, times(3)).warn("{}: {}", "RangeDateException", "Bad range");
+    }
+
+    @Test
+    public void checkFlush_reportsSuppressedAfterSilence() {
+        for (int i = 0; i < 4; i++) {
+            clientErrorLog.warn(exception, "Bad range");
+        }
+        clientErrorLog.flush();
+        verify(logger, never()).warn("Suppressed {} client error log lines", 2);
+
+        advance(Duration.ofMillis(1500));
+        clientErrorLog.flush();
+        clientErrorLog.flush();
+
+        verify(logger, times(1)).warn("Suppressed {} client error log lines", 2);
+    }
+
+    @Test
+    public void checkFlush_silentWithoutSuppressedLines() {
+        clientErrorLog.warn(exception, "Bad range");
+        advance(Duration.ofSeconds(1));
+        clientErrorLog.flush();
+
+        verify(logger).warn("{}: {}", "RangeDateException", "Bad range");
+        verify(logger, never()).warn(eq("Suppressed {} client error log lines"), anyInt());
+    }
+
+    @Test
+    public void checkWarn_disabledLogger() {
+        when(logger.isWarnEnabled()).thenReturn(false);
+
+        clientErrorLog.warn(exception, "Bad range");
+
+        verify(logger).isWarnEnabled();
+        verifyNoMoreInteractions(logger);
+    }
+
+    private void advance(Duration duration) {
+        nanoTime += duration.toNanos();
+    }
+}
@@ -0,0 +1,73 @@
+package com.clear_solutions.test_assignment.unit.exception;
+
+import com.clear_solutions.test_assignment.config.ValidationHandler;
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.GlobalExceptionHandler;
+import com.clear_solutions.test_assignment.exception.RangeDateException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.exception.UserInvalidAgeException;
+import com.clear_solutions.test_assignment.exception.UserValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rejected requests are counted in {@code user.api.errors}, one counter per
+ * exception type and so per answered status.
+ */
+public class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider =
+            new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class);
+
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler(meterRegistryProvider, 20);
+
+    private final ValidationHandler validationHandler = new ValidationHandler(meterRegistryProvider);
+
+    @Test
+    public void checkErrorCounters_successFlow() {
+        assertEquals(HttpStatus.BAD_REQUEST, exceptionHandler
+                .handleUserInvalidAgeException(new UserInvalidAgeException("Invalid user age")).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, exceptionHandler
+                .handleRangeDateException(new RangeDateException("Bad range")).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, exceptionHandler
+                .handleRangeDateException(new ResourceNotFoundException("User", "Id", 1L)).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, exceptionHandler
+                .handleRangeDateException(new ResourceNotFoundException("User", "Id", 2L)).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, exceptionHandler
+                .handleDuplicateEmailException(new DuplicateEmailException()).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, validationHandler
+                .handleUserValidationErrors(new UserValidationException(List.of("Email is mandatory"))).getStatusCode());
+
+        assertEquals(1, count("UserInvalidAgeException"));
+        assertEquals(1, count("RangeDateException"));
+        assertEquals(2, count("ResourceNotFoundException"));
+        assertEquals(1, count("DuplicateEmailException"));
+        assertEquals(1, count("UserValidationException"));
+        assertEquals(5, meterRegistry.get("user.api.errors").counters().size());
+    }
+
+    @Test
+    public void checkErrorCounters_withoutRegistry() {
+        ObjectProvider<MeterRegistry> noRegistry = new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class);
+        GlobalExceptionHandler handler = new GlobalExceptionHandler(noRegistry, 20);
+
+        assertEquals(HttpStatus.NOT_FOUND, handler
+                .handleRangeDateException(new ResourceNotFoundException("User", "Id", 1L)).getStatusCode());
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    private double count(String exception) {
+        return meterRegistry.get("user.api.errors").tag("exception", exception).counter().count();
+    }
+}
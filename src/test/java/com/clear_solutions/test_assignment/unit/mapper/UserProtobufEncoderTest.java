@@ -0,0 +1,119 @@
+package com.clear_solutions.test_assignment.unit.mapper;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserProtobufEncoder;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads the encoder output back with the protobuf runtime, against a
+ * descriptor built to match {@code src/main/proto/user.proto}.
+ */
+public class UserProtobufEncoderTest {
+
+    private static final Descriptors.Descriptor USER = userDescriptor();
+
+    private static final UserDTO TEST_USER_DTO = UserDTO.builder()
+            .id(1L)
+            .email("test1@gmail.com")
+            .firstName("Bob")
+            .lastName("Smith")
+            .birthDate(LocalDate.of(1960, 2, 29))
+            .address("New_York")
+            .phoneNumber(12345678)
+            .build();
+
+    @Test
+    public void checkWrite_successFlow() throws Exception {
+        DynamicMessage message = DynamicMessage.parseFrom(USER, encode(TEST_USER_DTO));
+
+        assertEquals(1L, message.getField(field("id")));
+        assertEquals("test1@gmail.com", message.getField(field("email")));
+        assertEquals("Bob", message.getField(field("first_name")));
+        assertEquals("Smith", message.getField(field("last_name")));
+        assertEquals(LocalDate.of(1960, 2, 29), LocalDate.ofEpochDay((int) message.getField(field("birth_date"))));
+        assertEquals("New_York", message.getField(field("address")));
+        assertEquals(12345678, message.getField(field("phone_number")));
+        assertEquals(message.getSerializedSize(), UserProtobufEncoder.serializedSize(TEST_USER_DTO));
+    }
+
+    @Test
+    public void checkWriteDelimited_successFlow() throws Exception {
+        UserDTO withoutAddress = UserDTO.builder().email("test2@gmail.com").birthDate(LocalDate.of(1990, 1, 1)).build();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        UserProtobufEncoder.writeDelimited(TEST_USER_DTO, output);
+        UserProtobufEncoder.writeDelimited(withoutAddress, output);
+        output.flush();
+
+        ByteArrayInputStream input = new ByteArrayInputStream(bytes.toByteArray());
+        DynamicMessage.Builder first = DynamicMessage.newBuilder(USER);
+        DynamicMessage.Builder second = DynamicMessage.newBuilder(USER);
+        assertTrue(first.mergeDelimitedFrom(input));
+        assertTrue(second.mergeDelimitedFrom(input));
+        assertFalse(DynamicMessage.newBuilder(USER).mergeDelimitedFrom(input));
+
+        assertEquals("test1@gmail.com", first.getField(field("email")));
+        assertEquals("test2@gmail.com", second.getField(field("email")));
+        assertFalse(second.hasField(field("id")));
+        assertFalse(second.hasField(field("address")));
+    }
+
+    private static byte[] encode(UserDTO userDTO) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        UserProtobufEncoder.write(userDTO, output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Descriptors.FieldDescriptor field(String name) {
+        return USER.findFieldByName(name);
+    }
+
+    private static Descriptors.Descriptor userDescriptor() {
+        DescriptorProto user = DescriptorProto.newBuilder()
+                .setName("User")
+                .addField(field("id", 1, FieldDescriptorProto.Type.TYPE_INT64))
+                .addField(field("email", 2, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("first_name", 3, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("last_name", 4, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("birth_date", 5, FieldDescriptorProto.Type.TYPE_SINT32))
+                .addField(field("address", 6, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("phone_number", 7, FieldDescriptorProto.Type.TYPE_INT32))
+                .build();
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .setName("user.proto")
+                .setPackage("clear_solutions.users")
+                .setSyntax("proto3")
+                .addMessageType(user)
+                .build();
+        try {
+            return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0])
+                    .findMessageTypeByName("User");
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type) {
+        return FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.clear_solutions.test_assignment.unit.repository;
+
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.model.UserChangeType;
+import com.clear_solutions.test_assignment.repository.ReactiveUserRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the statements against an in-memory H2 database with the tables
+ * Hibernate would generate, including the {@code users_seq} table MySQL
+ * uses in place of a sequence.
+ */
+public class ReactiveUserRepositoryTest {
+
+    private DatabaseClient databaseClient;
+
+    private ReactiveUserRepository userRepository;
+
+    @BeforeEach
+    public void beforeEach() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1"));
+        Flux.just("create table users (id bigint primary key, email varchar(255) not null,"
+                                + " first_name varchar(255) not null, last_name varchar(255) not null,"
+                                + " birth_date date not null, address varchar(255), phone_number int,"
+                                + " version bigint not null, constraint uk_users_email unique (email))",
+                        "create table users_seq (next_val bigint)",
+                        "insert into users_seq values (101)",
+                        "create table user_changes (id bigint auto_increment primary key, type varchar(16),"
+                                + " user_id bigint, payload varchar(2000), created_at timestamp)")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        userRepository = new ReactiveUserRepository(databaseClient);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        databaseClient.sql("drop all objects").then().block();
+    }
+
+    @Test
+    public void checkInsert_allocatesIdBlocks() {
+        User first = userRepository.insert(user("first@gmail.com", LocalDate.of(1980, 1, 1))).block();
+        User second = userRepository.insert(user("second@gmail.com", LocalDate.of(1990, 1, 1))).block();
+
+        // The block ending at 101 was reserved and the sequence moved past it
+        assertEquals(2L, first.getId());
+        assertEquals(3L, second.getId());
+        assertEquals(201L, databaseClient.sql("select next_val from users_seq")
+                .map(row -> row.get(0, Long.class)).one().block());
+        assertEquals(List.of(first, second), userRepository.findAll().collectList().block());
+        assertEquals(first, userRepository.findById(first.getId()).block());
+    }
+
+    @Test
+    public void checkConditionalWrites_successFlow() {
+        User user = userRepository.insert(user("first@gmail.com", LocalDate.of(1980, 1, 1))).block();
+        user.setAddress(null);
+
+        assertEquals(0L, userRepository.updateById(user.getId(), 5L, user).block());
+        assertEquals(1L, userRepository.updateById(user.getId(), 0L, user).block());
+        assertEquals(1L, userRepository.updateById(user.getId(), null, user).block());
+
+        User updated = userRepository.findById(user.getId()).block();
+        assertNull(updated.getAddress());
+        assertEquals(2L, updated.getVersion());
+
+        assertEquals(0L, userRepository.deleteById(user.getId(), 1L).block());
+        assertEquals(1L, userRepository.deleteById(user.getId(), 2L).block());
+        assertFalse(userRepository.existsById(user.getId()).block());
+    }
+
+    @Test
+    public void checkBirthDateRange_successFlow() {
+        userRepository.insert(user("first@gmail.com", LocalDate.of(1980, 1, 1))).block();
+        User inRange = userRepository.insert(user("second@gmail.com", LocalDate.of(1985, 1, 1))).block();
+        userRepository.insert(user("third@gmail.com", LocalDate.of(1990, 1, 1))).block();
+
+        assertEquals(List.of(inRange), userRepository.findByBirthDateRange(LocalDate.of(1980, 1, 1),
+                LocalDate.of(1990, 1, 1)).collectList().block());
+    }
+
+    @Test
+    public void checkAppendChange_successFlow() {
+        userRepository.appendChange(UserChangeType.DELETED, 7L, null).block();
+
+        Map<String, Object> change = databaseClient.sql("select type, user_id, payload from user_changes")
+                .fetch().one().block();
+        assertEquals("DELETED", change.get("TYPE"));
+        assertEquals(7L, change.get("USER_ID"));
+        assertNull(change.get("PAYLOAD"));
+    }
+
+    private static User user(String email, LocalDate birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("Bob")
+                .lastName("Smith")
+                .birthDate(birthDate)
+                .address("New_York")
+                .phoneNumber(12345678)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.clear_solutions.test_assignment.unit.repository;
+
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the search Criteria queries through Hibernate against an in-memory
+ * H2 database in MySQL mode, with case-insensitive text columns standing in
+ * for the MySQL collation.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class UserSearchRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User bobSmith;
+    private User smithJones;
+    private User bobbySmithers;
+    private User aliceSmith;
+
+    @BeforeEach
+    public void beforeEach() {
+        bobSmith = userRepository.save(user("bob.smith@gmail.com", "Bob", "Smith"));
+        smithJones = userRepository.save(user("smith@gmail.com", "Smith", "Jones"));
+        bobbySmithers = userRepository.save(user("bobby@gmail.com", "Bobby", "Smithers"));
+        aliceSmith = userRepository.save(user("alice@gmail.com", "Alice", "Smith"));
+        userRepository.save(user("john@gmail.com", "John", "Doe"));
+        userRepository.flush();
+    }
+
+    @Test
+    public void checkSearch_ranksMatches() {
+        // Exact names score 4, name prefixes 2 and email prefixes 1, summed over the tokens
+        List<User> actual = userRepository.search(List.of("bob", "smith"), 0, 10);
+
+        assertEquals(List.of(bobSmith, bobbySmithers), actual);
+    }
+
+    @Test
+    public void checkSearch_pagesByRankThenId() {
+        List<User> all = userRepository.search(List.of("SMITH"), 0, 10);
+
+        assertEquals(List.of(bobSmith, smithJones, aliceSmith, bobbySmithers), all);
+        assertEquals(List.of(aliceSmith, bobbySmithers), userRepository.search(List.of("SMITH"), 2, 2));
+        assertTrue(userRepository.search(List.of("SMITH"), 4, 2).isEmpty());
+    }
+
+    @Test
+    public void checkSearch_escapesWildcards() {
+        userRepository.saveAndFlush(user("under_score@gmail.com", "Under", "Score"));
+
+        assertEquals(1, userRepository.search(List.of("under_"), 0, 10).size());
+        assertTrue(userRepository.search(List.of("und%r"), 0, 10).isEmpty());
+    }
+
+    @Test
+    public void checkSearch_capsCandidatesPerIndexRange() {
+        List<User> many = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            many.add(user("crowd" + i + "@gmail.com", "Member" + i, "Crowd"));
+        }
+        userRepository.saveAllAndFlush(many);
+
+        // Each index range is read up to 1000 rows, so 1100 first-name matches yield 1000 candidates
+        assertEquals(100, userRepository.search(List.of("member"), 900, 200).size());
+        assertTrue(userRepository.search(List.of("member"), 1000, 10).isEmpty());
+    }
+
+    @Test
+    public void checkSearch_filtersCappedDrivingRange() {
+        List<User> many = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            many.add(user("crowd" + i + "@gmail.com", String.format("Member%04d", i), "Crowd"));
+        }
+        many.get(10).setLastName("Rare");
+        many.get(1050).setLastName("Rare");
+        userRepository.saveAllAndFlush(many);
+
+        // The second token filters the first 1000 entries of the member% range, not the whole range
+        assertEquals(List.of(many.get(10)), userRepository.search(List.of("member", "rare"), 0, 10));
+    }
+
+    private static User user(String email, String firstName, String lastName) {
+        return User.builder()
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.config.UserAgeConfig;
+import com.clear_solutions.test_assignment.config.UserAgeProperties;
+import com.clear_solutions.test_assignment.service.impl.AdultAgeCutoff;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdultAgeCutoffTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Kyiv");
+
+    private final MutableClock clock = new MutableClock();
+
+    private final AdultAgeCutoff adultAgeCutoff = new AdultAgeCutoff(properties(18), clock);
+
+    @Test
+    public void checkMidnight_flow() {
+        LocalDate birthDate = LocalDate.of(2008, 10, 19);
+
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 59, 59, 999_000_000));
+        assertFalse(adultAgeCutoff.isAdult(birthDate));
+        assertEquals(LocalDate.of(2026, 10, 18), adultAgeCutoff.today());
+
+        clock.set(LocalDateTime.of(2026, 10, 19, 0, 0));
+        assertTrue(adultAgeCutoff.isAdult(birthDate));
+        assertEquals(birthDate, adultAgeCutoff.latestBirthDate());
+        assertEquals(LocalDate.of(2026, 10, 19), adultAgeCutoff.today());
+    }
+
+    @Test
+    public void checkClockBackwards_flow() {
+        LocalDate birthDate = LocalDate.of(2008, 10, 19);
+
+        clock.set(LocalDateTime.of(2026, 10, 19, 0, 0, 1));
+        assertTrue(adultAgeCutoff.isAdult(birthDate));
+
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 59, 59));
+        assertFalse(adultAgeCutoff.isAdult(birthDate));
+    }
+
+    @Test
+    public void checkLeapDay_flow() {
+        LocalDate leapBirthDate = LocalDate.of(2008, 2, 29);
+
+        clock.set(LocalDateTime.of(2026, 2, 28, 12, 0));
+        assertFalse(adultAgeCutoff.isAdult(leapBirthDate));
+
+        clock.set(LocalDateTime.of(2026, 3, 1, 12, 0));
+        assertTrue(adultAgeCutoff.isAdult(leapBirthDate));
+
+        clock.set(LocalDateTime.of(2028, 2, 29, 12, 0));
+        assertTrue(adultAgeCutoff.isAdult(LocalDate.of(2010, 2, 28)));
+        assertFalse(adultAgeCutoff.isAdult(LocalDate.of(2010, 3, 1)));
+    }
+
+    @Test
+    public void checkMatchesPeriod_flow() {
+        for (LocalDate today : new LocalDate[]{LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 1),
+                LocalDate.of(2028, 2, 28), LocalDate.of(2028, 2, 29), LocalDate.of(2028, 3, 1),
+                LocalDate.of(2026, 12, 31), LocalDate.of(2027, 1, 1)}) {
+            clock.set(today.atTime(12, 0));
+            for (LocalDate birthDate = today.minusYears(19); birthDate.isBefore(today.minusYears(17));
+                 birthDate = birthDate.plusDays(1)) {
+                assertEquals(Period.between(birthDate, today).getYears() >= 18, adultAgeCutoff.isAdult(birthDate),
+                        birthDate + " on " + today);
+            }
+        }
+    }
+
+    @Test
+    public void checkBatchPredicate_flow() {
+        LocalDate birthDate = LocalDate.of(2008, 10, 19);
+
+        clock.set(LocalDateTime.of(2026, 10, 18, 23, 59));
+        Predicate<LocalDate> adults = adultAgeCutoff.adults();
+        clock.set(LocalDateTime.of(2026, 10, 19, 0, 1));
+
+        assertFalse(adults.test(birthDate));
+        assertTrue(adults.test(birthDate.minusDays(1)));
+        assertTrue(adultAgeCutoff.isAdult(birthDate));
+    }
+
+    @Test
+    public void checkInvalidAge_failedFlow() {
+        ApplicationContextRunner runner = new ApplicationContextRunner().withUserConfiguration(UserAgeConfig.class);
+
+        runner.withPropertyValues("user.age=0").run(context -> assertNotNull(context.getStartupFailure()));
+        runner.withPropertyValues("user.age=eighteen").run(context -> assertNotNull(context.getStartupFailure()));
+        runner.withPropertyValues("user.age=21").run(context ->
+                assertEquals(21, context.getBean(UserAgeProperties.class).getAge()));
+    }
+
+    private static UserAgeProperties properties(int age) {
+        UserAgeProperties properties = new UserAgeProperties();
+        properties.setAge(age);
+        return properties;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = Instant.EPOCH;
+
+        void set(LocalDateTime dateTime) {
+            instant = dateTime.atZone(ZONE).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
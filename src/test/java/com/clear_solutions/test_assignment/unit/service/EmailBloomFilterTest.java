@@ -0,0 +1,40 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.impl.EmailBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EmailBloomFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    public void checkMightContain_beforeLoadFlow() {
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, 1000, 0.01);
+        assertTrue(filter.mightContain("nobody@gmail.com"));
+    }
+
+    @Test
+    public void checkMightContain_successFlow() {
+        when(userRepository.streamAllEmails()).thenReturn(IntStream.range(0, 1000).mapToObj(i -> "user" + i + "@gmail.com"));
+        EmailBloomFilter filter = new EmailBloomFilter(userRepository, 1000, 0.01);
+        filter.load();
+        filter.add("New@Gmail.com");
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@gmail.com"));
+        }
+        assertTrue(filter.mightContain("new@gmail.com"));
+        long falsePositives = Stream.iterate(0, i -> i + 1).limit(10_000)
+                .filter(i -> filter.mightContain("other" + i + "@gmail.com")).count();
+        assertFalse(falsePositives > 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,124 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.dto.BatchItemErrorDTO;
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.mapper.UserMapper;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = UserBatchService.class)
+@Import({UserMapper.class, UserDTOValidator.class})
+@TestPropertySource(properties = "user.batch.size=2")
+public class UserBatchServiceTest {
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+    @MockBean
+    private UserChangeLog userChangeLog;
+    @MockBean
+    private EntityManager entityManager;
+
+    private UserDTO adult1;
+    private UserDTO adult2;
+    private UserDTO adult3;
+    private UserDTO child;
+    private UserDTO invalid;
+
+    @BeforeEach
+    public void beforeEach() {
+        adult1 = user("test1@gmail.com", LocalDate.of(1980, 11, 20));
+        adult2 = user("test2@gmail.com", LocalDate.of(1995, 6, 9));
+        adult3 = user("test3@gmail.com", LocalDate.of(2000, 1, 5));
+        child = user("test4@gmail.com", LocalDate.of(2015, 1, 5));
+        invalid = user("not an email", LocalDate.of(1990, 1, 5));
+
+        when(userService.adultUserPredicate()).thenReturn(birthDate -> !birthDate.equals(child.getBirthDate()));
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    public void checkSaveUsers_successFlow() {
+        BatchResultDTO actual = userBatchService.saveUsers(List.of(adult1, invalid, child, adult2, adult3));
+
+        assertEquals(5, actual.getTotal());
+        assertEquals(3, actual.getCreated());
+        assertEquals(List.of(
+                new BatchItemErrorDTO(1, List.of("Email is not valid")),
+                new BatchItemErrorDTO(2, List.of("Invalid user age"))), actual.getFailures());
+        verify(userRepository, times(2)).saveAll(anyList());
+        verify(userRepository, times(2)).flush();
+    }
+
+    @Test
+    public void checkSaveUsers_rejectedChunkFlow() {
+        User duplicate = new UserMapper().toEntity(adult2);
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.contains(duplicate)) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            return users;
+        });
+
+        BatchResultDTO actual = userBatchService.saveUsers(List.of(adult1, adult2));
+
+        assertEquals(2, actual.getTotal());
+        assertEquals(1, actual.getCreated());
+        assertEquals(List.of(new BatchItemErrorDTO(1, List.of("User could not be saved"))), actual.getFailures());
+        verify(userRepository, times(3)).saveAll(anyList());
+        verify(userRepository).flush();
+    }
+
+    private static UserDTO user(String email, LocalDate birthDate) {
+        return UserDTO.builder()
+                .email(email)
+                .firstName("Bob")
+                .lastName("Smith")
+                .birthDate(birthDate)
+                .address("New_York")
+                .phoneNumber(12345678)
+                .build();
+    }
+}
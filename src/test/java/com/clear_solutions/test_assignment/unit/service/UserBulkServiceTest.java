@@ -0,0 +1,150 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.config.CacheConfig;
+import com.clear_solutions.test_assignment.dto.BulkJobDTO;
+import com.clear_solutions.test_assignment.dto.BulkUserRequestDTO;
+import com.clear_solutions.test_assignment.exception.BulkRequestException;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserBulkService;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = UserBulkService.class)
+@TestPropertySource(properties = "user.bulk.chunk-size=2")
+public class UserBulkServiceTest {
+
+    @Autowired
+    private UserBulkService userBulkService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private TransactionTemplate transactionTemplate;
+    @MockBean
+    private UserChangeLog userChangeLog;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        public TaskExecutor applicationTaskExecutor() {
+            return new SyncTaskExecutor();
+        }
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE);
+        }
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+    }
+
+    @AfterEach
+    public void afterEach() {
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    public void checkBulkDeleteByIds_successFlow() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(3L, "cached");
+        when(userRepository.findExistingIdsForUpdate(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(userRepository.findExistingIdsForUpdate(List.of(3L))).thenReturn(List.of(3L));
+        when(userRepository.deleteByIdIn(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        BulkJobDTO started = userBulkService.startDelete(BulkUserRequestDTO.builder().ids(List.of(1L, 2L, 3L)).build());
+        BulkJobDTO actual = userBulkService.getJob(started.getId());
+
+        assertEquals("SUCCEEDED", actual.getStatus());
+        assertEquals(3, actual.getProcessed());
+        assertEquals(2, actual.getAffected());
+        assertEquals(2, actual.getChunks());
+        assertNull(cacheManager.getCache(CacheConfig.USERS_CACHE).get(3L));
+        verify(userRepository).findExistingIdsForUpdate(List.of(1L, 2L));
+        verify(userRepository).findExistingIdsForUpdate(List.of(3L));
+        verify(userRepository).deleteByIdIn(List.of(1L));
+        verify(userRepository).deleteByIdIn(List.of(3L));
+        verify(userChangeLog).deleted(List.of(1L));
+        verify(userChangeLog).deleted(List.of(3L));
+        verifyNoMoreInteractions(userChangeLog);
+    }
+
+    @Test
+    public void checkBulkUpdateByRange_successFlow() {
+        LocalDate fromDate = LocalDate.of(1980, 1, 1);
+        LocalDate toDate = LocalDate.of(2000, 1, 1);
+        when(userRepository.findIdsByBirthDateRange(fromDate, toDate, 0L, PageRequest.ofSize(2))).thenReturn(List.of(1L, 5L));
+        when(userRepository.findIdsByBirthDateRange(fromDate, toDate, 5L, PageRequest.ofSize(2))).thenReturn(List.of(7L));
+        when(userRepository.updateContactByIdIn(any(), any(), any())).thenReturn(2, 1);
+
+        BulkJobDTO started = userBulkService.startUpdate(BulkUserRequestDTO.builder()
+                .fromDate(fromDate).toDate(toDate).address("Kyiv").build());
+        BulkJobDTO actual = userBulkService.getJob(started.getId());
+
+        assertEquals("SUCCEEDED", actual.getStatus());
+        assertEquals(3, actual.getAffected());
+        verify(userRepository).findIdsByBirthDateRange(fromDate, toDate, 0L, PageRequest.ofSize(2));
+        verify(userRepository).findIdsByBirthDateRange(fromDate, toDate, 5L, PageRequest.ofSize(2));
+        verify(userRepository).updateContactByIdIn(List.of(1L, 5L), "Kyiv", null);
+        verify(userRepository).updateContactByIdIn(List.of(7L), "Kyiv", null);
+        verify(userRepository).findAllById(List.of(1L, 5L));
+        verify(userRepository).findAllById(List.of(7L));
+    }
+
+    @Test
+    public void checkBulkDelete_failedChunkFlow() {
+        when(userRepository.findExistingIdsForUpdate(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(userRepository.deleteByIdIn(List.of(3L))).thenThrow(new IllegalStateException("Lock wait timeout"));
+
+        BulkJobDTO started = userBulkService.startDelete(BulkUserRequestDTO.builder().ids(List.of(1L, 2L, 3L)).build());
+        BulkJobDTO actual = userBulkService.getJob(started.getId());
+
+        assertEquals("FAILED", actual.getStatus());
+        assertEquals(2, actual.getProcessed());
+        assertEquals("Lock wait timeout", actual.getError());
+        verify(userRepository).findExistingIdsForUpdate(List.of(1L, 2L));
+        verify(userRepository).findExistingIdsForUpdate(List.of(3L));
+        verify(userRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(userRepository).deleteByIdIn(List.of(3L));
+        verify(userChangeLog).deleted(List.of(1L, 2L));
+        verifyNoMoreInteractions(userChangeLog);
+    }
+
+    @Test
+    public void checkBulkRequest_exceptionFlow() {
+        assertThrows(BulkRequestException.class, () -> userBulkService.startDelete(new BulkUserRequestDTO()));
+        assertThrows(BulkRequestException.class, () -> userBulkService.startUpdate(
+                BulkUserRequestDTO.builder().ids(List.of(1L)).build()));
+    }
+}
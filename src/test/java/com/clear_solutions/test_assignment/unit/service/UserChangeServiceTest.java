@@ -0,0 +1,291 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.model.UserChange;
+import com.clear_solutions.test_assignment.model.UserChangeType;
+import com.clear_solutions.test_assignment.repository.UserChangeRepository;
+import com.clear_solutions.test_assignment.service.UserChangeService;
+import com.clear_solutions.test_assignment.service.impl.UserChangeServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = UserChangeService.class)
+@TestPropertySource(properties = {"user.changes.batch-size=2", "user.changes.gap-timeout=10s",
+        "user.changes.send-queue-size=2"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class UserChangeServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\w+)$", Pattern.MULTILINE);
+
+    @Autowired
+    private UserChangeService userChangeService;
+
+    @Autowired
+    private SwitchableTaskExecutor taskExecutor;
+
+    @MockBean
+    private UserChangeRepository userChangeRepository;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        public SwitchableTaskExecutor applicationTaskExecutor() {
+            return new SwitchableTaskExecutor();
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        verifyNoMoreInteractions(userChangeRepository);
+    }
+
+    @Test
+    public void checkDispatch_successFlow() {
+        RecordingEmitter fromStart = new RecordingEmitter();
+        RecordingEmitter resumed = new RecordingEmitter();
+        userChangeService.subscribe(fromStart, 0);
+        userChangeService.subscribe(resumed, 2);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1, Instant.now()), change(2, Instant.now())));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(2, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(3, Instant.now())));
+
+        ((UserChangeServiceImpl) userChangeService).dispatch();
+
+        assertEquals(List.of(1L, 2L, 3L), fromStart.eventIds);
+        assertEquals(List.of(3L), resumed.eventIds);
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2));
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(2, PageRequest.ofSize(2));
+    }
+
+    @Test
+    public void checkDispatchHoldsBackAfterGap_successFlow() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        userChangeService.subscribe(emitter, 0);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1, Instant.now()), change(3, Instant.now())));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(1, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(3, Instant.now())))
+                .thenReturn(List.of(change(3, Instant.now().minusSeconds(60))));
+
+        UserChangeServiceImpl dispatcher = (UserChangeServiceImpl) userChangeService;
+        dispatcher.dispatch();
+        assertEquals(List.of(1L), emitter.eventIds);
+        dispatcher.dispatch();
+        assertEquals(List.of(1L), emitter.eventIds);
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L), emitter.eventIds);
+
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2));
+        verify(userChangeRepository, times(2)).findByIdGreaterThanOrderByIdAsc(1, PageRequest.ofSize(2));
+    }
+
+    @Test
+    public void checkDispatchSendsLateCommit_successFlow() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        userChangeService.subscribe(emitter, 0);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1, Instant.now()), change(3, Instant.now().minusSeconds(60))));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(2))).thenReturn(List.of());
+        when(userChangeRepository.findAllById(List.of(2L))).thenReturn(List.of(change(2, Instant.now())));
+
+        UserChangeServiceImpl dispatcher = (UserChangeServiceImpl) userChangeService;
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L), emitter.eventIds);
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L, 2L), emitter.eventIds);
+        dispatcher.dispatch();
+        assertEquals(List.of(1L, 3L, 2L), emitter.eventIds);
+
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2));
+        verify(userChangeRepository, times(3)).findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(2));
+        verify(userChangeRepository).findAllById(List.of(2L));
+    }
+
+    @Test
+    public void checkDispatchDropsDisconnectedSubscriber_successFlow() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.disconnected = true;
+        userChangeService.subscribe(emitter, 0);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1, Instant.now())));
+
+        UserChangeServiceImpl dispatcher = (UserChangeServiceImpl) userChangeService;
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        assertEquals(List.of(), emitter.eventIds);
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2));
+    }
+
+    @Test
+    public void checkDispatchAfterPurge_resetFlow() {
+        when(userChangeRepository.findMaxIdCreatedBefore(any())).thenReturn(1000L);
+        when(userChangeRepository.deleteCreatedBefore(any())).thenReturn(1000);
+        when(userChangeRepository.findMinId()).thenReturn(1001L);
+        UserChangeServiceImpl dispatcher = (UserChangeServiceImpl) userChangeService;
+        dispatcher.purge();
+
+        RecordingEmitter fromStart = new RecordingEmitter();
+        RecordingEmitter resumed = new RecordingEmitter();
+        userChangeService.subscribe(fromStart, 0);
+        userChangeService.subscribe(resumed, 1001);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(1000, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1001, Instant.now().minusSeconds(60)), change(1002, Instant.now())));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(1002, PageRequest.ofSize(2))).thenReturn(List.of());
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        // The purged ids 1-1000 are neither sent nor awaited as uncommitted
+        assertEquals(List.of(1000L, 1001L, 1002L), fromStart.eventIds);
+        assertEquals(List.of("RESET", "UPDATED", "UPDATED"), fromStart.eventNames);
+        assertEquals(List.of(1002L), resumed.eventIds);
+        verify(userChangeRepository).findMaxIdCreatedBefore(any());
+        verify(userChangeRepository).deleteCreatedBefore(any());
+        verify(userChangeRepository).findMinId();
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(1000, PageRequest.ofSize(2));
+        verify(userChangeRepository, times(2)).findByIdGreaterThanOrderByIdAsc(1002, PageRequest.ofSize(2));
+    }
+
+    @Test
+    public void checkDispatchPassesSlowSubscriber_successFlow() throws Exception {
+        // The slow client subscribes first, so its sending task is the one given a thread
+        taskExecutor.detachNext = true;
+        CountDownLatch congested = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(congested);
+        RecordingEmitter fast = new RecordingEmitter();
+        userChangeService.subscribe(slow, 0);
+        userChangeService.subscribe(fast, 0);
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(1, Instant.now())));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(1, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(2, Instant.now()), change(3, Instant.now())));
+        when(userChangeRepository.findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(2)))
+                .thenReturn(List.of(change(4, Instant.now())));
+
+        UserChangeServiceImpl dispatcher = (UserChangeServiceImpl) userChangeService;
+        dispatcher.dispatch();
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        // The slow client is stuck writing 1; 2 and 3 fill its queue and 4 is left for later
+        assertTimeoutPreemptively(Duration.ofSeconds(5), dispatcher::dispatch);
+        assertEquals(List.of(1L, 2L, 3L, 4L), fast.eventIds);
+
+        congested.countDown();
+        slow.awaitEvents(3);
+        dispatcher.dispatch();
+        // Sent by whichever task drains the queue
+        slow.awaitEvents(4);
+        assertEquals(List.of(1L, 2L, 3L, 4L), slow.eventIds);
+
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.ofSize(2));
+        verify(userChangeRepository).findByIdGreaterThanOrderByIdAsc(1, PageRequest.ofSize(2));
+        verify(userChangeRepository, times(2)).findByIdGreaterThanOrderByIdAsc(3, PageRequest.ofSize(2));
+    }
+
+    private static UserChange change(long id, Instant createdAt) {
+        return new UserChange(id, UserChangeType.UPDATED, 100 + id, "{\"id\":" + (100 + id) + "}", createdAt);
+    }
+
+    /**
+     * Runs tasks on the calling thread, except for the next one once a test asks for a thread.
+     */
+    static class SwitchableTaskExecutor implements TaskExecutor {
+
+        private volatile boolean detachNext;
+
+        @Override
+        public void execute(Runnable task) {
+            if (detachNext) {
+                detachNext = false;
+                new Thread(task).start();
+            } else {
+                task.run();
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+
+        private final List<String> eventNames = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch writable;
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private boolean disconnected;
+
+        private RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        /**
+         * @param writable holds up sending until it is counted down
+         */
+        private RecordingEmitter(CountDownLatch writable) {
+            this.writable = writable;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            sending.countDown();
+            try {
+                writable.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String text) {
+                    Matcher matcher = EVENT_ID.matcher(text);
+                    while (matcher.find()) {
+                        eventIds.add(Long.parseLong(matcher.group(1)));
+                    }
+                    Matcher name = EVENT_NAME.matcher(text);
+                    while (name.find()) {
+                        eventNames.add(name.group(1));
+                    }
+                }
+            }
+        }
+
+        private void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (eventIds.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.dto.BatchItemErrorDTO;
+import com.clear_solutions.test_assignment.dto.BatchResultDTO;
+import com.clear_solutions.test_assignment.dto.ImportJobDTO;
+import com.clear_solutions.test_assignment.dto.ImportRequestDTO;
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.exception.ImportRequestException;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.service.UserBatchService;
+import com.clear_solutions.test_assignment.service.UserImportService;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(value = UserImportService.class)
+@TestPropertySource(properties = {"user.batch.size=2", "user.import.window-size=256B", "user.import.parallelism=2"})
+public class UserImportServiceTest {
+
+    @TempDir
+    static Path importDirectory;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserBatchService userBatchService;
+
+    @Captor
+    private ArgumentCaptor<List<UserDTO>> batches;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        public TaskExecutor applicationTaskExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @DynamicPropertySource
+    static void importProperties(DynamicPropertyRegistry registry) {
+        registry.add("user.import.directory", importDirectory::toString);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        verifyNoMoreInteractions(userBatchService);
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkImportNdjson_successFlow() {
+        Files.writeString(importDirectory.resolve("users.ndjson"), """
+                {"email":"anna@gmail.com","firstName":"Anna","lastName":"Smith","birthDate":"1990-01-01"}
+                {"email":
+                
+                {"email":"bob@gmail.com","firstName":"Bobby","lastName":"Brown","birthDate":"1991-02-02"}
+                {"email":"carl@gmail.com","firstName":"Carl","lastName":"White","birthDate":"1992-03-03"}
+                """);
+        when(userBatchService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<?> users = invocation.getArgument(0);
+            return new BatchResultDTO(users.size(), users.size(), List.of());
+        });
+
+        ImportJobDTO job = userImportService.startImport(new ImportRequestDTO("users.ndjson", null));
+        ImportJobDTO finished = userImportService.getJob(job.getId());
+
+        assertEquals("NDJSON", finished.getFormat());
+        assertEquals("SUCCEEDED", finished.getStatus());
+        assertEquals(4, finished.getRecords());
+        assertEquals(3, finished.getCreated());
+        assertEquals(1, finished.getFailed());
+        assertEquals(finished.getBytesTotal(), finished.getCommittedOffset());
+        assertEquals(List.of("{\"line\":2,\"errors\":[\"Malformed record\"]}"),
+                Files.readAllLines(importDirectory.resolve("users.ndjson.errors.ndjson")));
+
+        verify(userBatchService, atLeastOnce()).saveUsers(batches.capture());
+        assertEquals(List.of("anna@gmail.com", "bob@gmail.com", "carl@gmail.com"), batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(UserDTO::getEmail)
+                .toList());
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkImportCsv_successFlow() {
+        Files.writeString(importDirectory.resolve("users.csv"), """
+                email,firstName,lastName,birthDate,address,phoneNumber\r
+                anna@gmail.com,Anna,Smith,1990-01-01,"Kyiv, Main st. 1",380501234\r
+                kid@gmail.com,Kiddo,Smith,2020-01-01,,\r
+                """);
+        when(userBatchService.saveUsers(anyList()))
+                .thenReturn(new BatchResultDTO(2, 1, List.of(new BatchItemErrorDTO(1, List.of("Invalid user age")))));
+
+        ImportJobDTO job = userImportService.startImport(new ImportRequestDTO("users.csv", null));
+        ImportJobDTO finished = userImportService.getJob(job.getId());
+
+        assertEquals("SUCCEEDED", finished.getStatus());
+        assertEquals(2, finished.getRecords());
+        assertEquals(1, finished.getCreated());
+        assertEquals(List.of("{\"line\":3,\"errors\":[\"Invalid user age\"]}"),
+                Files.readAllLines(importDirectory.resolve("users.csv.errors.ndjson")));
+
+        verify(userBatchService).saveUsers(batches.capture());
+        UserDTO anna = batches.getValue().get(0);
+        assertEquals("Kyiv, Main st. 1", anna.getAddress());
+        assertEquals(380501234, anna.getPhoneNumber());
+        assertEquals(LocalDate.of(1990, 1, 1), anna.getBirthDate());
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkImportResumesFromCheckpoint_successFlow() {
+        Path file = importDirectory.resolve("resume.ndjson");
+        String first = "{\"email\":\"anna@gmail.com\",\"firstName\":\"Anna\",\"lastName\":\"Smith\",\"birthDate\":\"1990-01-01\"}\n";
+        String second = "{\"email\":\"bob@gmail.com\",\"firstName\":\"Bobby\",\"lastName\":\"Brown\",\"birthDate\":\"1991-02-02\"}\n";
+        Files.writeString(file, first + second);
+        Files.writeString(importDirectory.resolve("resume.ndjson.checkpoint"), "fileSize=" + Files.size(file)
+                + "\nfileModified=" + Files.getLastModifiedTime(file).toMillis()
+                + "\noffset=" + first.length() + "\nlines=1\nrecords=1\ncreated=1\nfailed=0\n");
+        when(userBatchService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<?> users = invocation.getArgument(0);
+            return new BatchResultDTO(users.size(), users.size(), List.of());
+        });
+
+        ImportJobDTO resumed = userImportService.getJob(
+                userImportService.startImport(new ImportRequestDTO("resume.ndjson", null)).getId());
+
+        assertEquals(2, resumed.getRecords());
+        assertEquals(2, resumed.getCreated());
+        assertFalse(Files.exists(importDirectory.resolve("resume.ndjson.checkpoint")));
+
+        // The file is replaced under the same name and imported from its start
+        String third = "{\"email\":\"carl@gmail.com\",\"firstName\":\"Carl\",\"lastName\":\"White\",\"birthDate\":\"1992-03-03\"}\n";
+        Files.writeString(file, first + third);
+        ImportJobDTO reimported = userImportService.getJob(
+                userImportService.startImport(new ImportRequestDTO("resume.ndjson", null)).getId());
+
+        assertEquals("SUCCEEDED", reimported.getStatus());
+        assertEquals(2, reimported.getRecords());
+        assertEquals(2, reimported.getCreated());
+        assertEquals(reimported.getBytesTotal(), reimported.getCommittedOffset());
+        verify(userBatchService, times(2)).saveUsers(batches.capture());
+        assertEquals(List.of("bob@gmail.com", "anna@gmail.com", "carl@gmail.com"), batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(UserDTO::getEmail)
+                .toList());
+    }
+
+    @SneakyThrows
+    @Test
+    public void checkImportIgnoresStaleCheckpoint_successFlow() {
+        Path file = importDirectory.resolve("stale.ndjson");
+        Files.writeString(file, """
+                {"email":"dana@gmail.com","firstName":"Dana","lastName":"Green","birthDate":"1990-01-01"}
+                {"email":"eric@gmail.com","firstName":"Eric","lastName":"Black","birthDate":"1991-02-02"}
+                """);
+        Files.writeString(importDirectory.resolve("stale.ndjson.checkpoint"), "fileSize=" + (Files.size(file) - 1)
+                + "\nfileModified=" + Files.getLastModifiedTime(file).toMillis()
+                + "\noffset=50\nlines=1\nrecords=1\ncreated=1\nfailed=0\n");
+        Files.writeString(importDirectory.resolve("stale.ndjson.errors.ndjson"), "{\"line\":9,\"errors\":[\"Old\"]}\n");
+        when(userBatchService.saveUsers(anyList())).thenReturn(new BatchResultDTO(2, 2, List.of()));
+
+        ImportJobDTO finished = userImportService.getJob(
+                userImportService.startImport(new ImportRequestDTO("stale.ndjson", null)).getId());
+
+        assertEquals("SUCCEEDED", finished.getStatus());
+        assertEquals(2, finished.getRecords());
+        assertEquals(2, finished.getCreated());
+        assertEquals(List.of(), Files.readAllLines(importDirectory.resolve("stale.ndjson.errors.ndjson")));
+        verify(userBatchService).saveUsers(batches.capture());
+        assertEquals(List.of("dana@gmail.com", "eric@gmail.com"), batches.getValue().stream()
+                .map(UserDTO::getEmail)
+                .toList());
+    }
+
+    @Test
+    public void checkImport_exceptionFlow() {
+        assertThrows(ImportRequestException.class,
+                () -> userImportService.startImport(new ImportRequestDTO("../outside.csv", null)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> userImportService.startImport(new ImportRequestDTO("missing.csv", null)));
+        assertThrows(ResourceNotFoundException.class, () -> userImportService.getJob("missing"));
+    }
+}
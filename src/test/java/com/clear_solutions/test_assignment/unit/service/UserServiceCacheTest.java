@@ -0,0 +1,144 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.config.CacheConfig;
+import com.clear_solutions.test_assignment.config.UserAgeConfig;
+import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.service.impl.AdultAgeCutoff;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link UserService#getUserById} behind the caching advice, with the
+ * Caffeine cache manager the application uses.
+ */
+@WebMvcTest(value = UserService.class)
+@Import({UserAgeConfig.class, AdultAgeCutoff.class, CacheConfig.class})
+public class UserServiceCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private UserChangeLog userChangeLog;
+
+    private User user;
+    private User updatedUser;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager(CacheConfig.USERS_CACHE);
+        }
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).clear();
+        user = User.builder()
+                .id(1L)
+                .email("test1@gmail.com")
+                .firstName("Bob")
+                .lastName("Smith")
+                .birthDate(LocalDate.of(1980, 11, 20))
+                .version(1)
+                .build();
+        updatedUser = User.builder()
+                .id(1L)
+                .email("test1@gmail.com")
+                .firstName("Robert")
+                .lastName("Smith")
+                .birthDate(LocalDate.of(1980, 11, 20))
+                .version(2)
+                .build();
+    }
+
+    @Test
+    public void checkGetUserByIdCached_successFlow() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(user, userService.getUserById(1L));
+        assertEquals(user, userService.getUserById(1L));
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    public void checkGetUserByIdAfterUpdate_successFlow() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.of(updatedUser));
+        when(userRepository.updateById(eq(1L), eq(1L), any())).thenReturn(1);
+
+        assertEquals(user, userService.getUserById(1L));
+        userService.updateUser(updatedUser, 1L, 1L);
+
+        assertEquals(updatedUser, userService.getUserById(1L));
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    public void checkGetUserByIdAfterDelete_failedFlow() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user)).thenReturn(Optional.empty());
+        when(userRepository.deleteUserById(1L, null)).thenReturn(1);
+
+        assertEquals(user, userService.getUserById(1L));
+        userService.deleteUser(1L, null);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.getUserById(1L));
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    /**
+     * A load that read the old row before an update committed finishes after
+     * the update's eviction was issued; the old row must not stay cached.
+     */
+    @Test
+    public void checkGetUserByIdLoadRacingUpdate_successFlow() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch updated = new CountDownLatch(1);
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(updated.await(5, TimeUnit.SECONDS));
+            return Optional.of(user);
+        }).thenReturn(Optional.of(updatedUser));
+        when(userRepository.updateById(eq(1L), eq(1L), any())).thenAnswer(invocation -> {
+            updated.countDown();
+            return 1;
+        });
+
+        CompletableFuture<User> load = CompletableFuture.supplyAsync(() -> userService.getUserById(1L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<User> update = CompletableFuture.supplyAsync(() -> userService.updateUser(updatedUser, 1L, 1L));
+
+        assertEquals(user, load.get(5, TimeUnit.SECONDS));
+        update.get(5, TimeUnit.SECONDS);
+        assertEquals(updatedUser, userService.getUserById(1L));
+    }
+}
@@ -1,16 +1,30 @@
 package com.clear_solutions.test_assignment.unit.service;
 
+import com.clear_solutions.test_assignment.config.UserAgeConfig;
+import com.clear_solutions.test_assignment.dto.BirthMonthCountDTO;
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
+import com.clear_solutions.test_assignment.exception.DuplicateEmailException;
+import com.clear_solutions.test_assignment.exception.PreconditionFailedException;
 import com.clear_solutions.test_assignment.exception.RangeDateException;
 import com.clear_solutions.test_assignment.exception.ResourceNotFoundException;
+import com.clear_solutions.test_assignment.exception.SearchQueryException;
 import com.clear_solutions.test_assignment.model.User;
+import com.clear_solutions.test_assignment.repository.AgeBracketCounts;
+import com.clear_solutions.test_assignment.repository.BirthMonthCount;
 import com.clear_solutions.test_assignment.repository.UserRepository;
 import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.service.impl.AdultAgeCutoff;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -21,6 +35,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @WebMvcTest(value = UserService.class)
+@Import({UserAgeConfig.class, AdultAgeCutoff.class})
 public class UserServiceTest {
 
     @Autowired
@@ -28,6 +43,8 @@ public class UserServiceTest {
 
     @MockBean
     private UserRepository userRepository;
+    @MockBean
+    private UserChangeLog userChangeLog;
 
     private User user1;
     private User user2;
@@ -81,6 +98,16 @@ public class UserServiceTest {
         verify(userRepository).findAll();
     }
 
+    @Test
+    public void checkUsersPage_successFlow() {
+        List<User> expected = List.of(user2, user3);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(user1.getId(), PageRequest.ofSize(2)))
+                .thenReturn(expected);
+        List<User> actual = userService.getUsersPage(user1.getId(), 2);
+        assertEquals(expected, actual);
+        verify(userRepository).findByIdGreaterThanOrderByIdAsc(user1.getId(), PageRequest.ofSize(2));
+    }
+
     @Test
     public void checkUserById_successFlow() {
         when(userRepository.findById(user1.getId())).thenReturn(java.util.Optional.of(user1));
@@ -92,46 +119,60 @@ public class UserServiceTest {
     @Test
     public void checkSaveUser_successFlow() {
         User expected = user1;
-        when(userRepository.save(user1)).thenReturn(expected);
+        when(userRepository.saveAndFlush(user1)).thenReturn(expected);
         User actual = userService.saveUser(user1);
         assertEquals(expected, actual);
-        verify(userRepository).save(user1);
+        verify(userRepository).saveAndFlush(user1);
+        verify(userChangeLog).created(List.of(user1));
     }
 
     @Test
     public void checkUserUpdate_successFlow() {
         User expected = user1;
-        when(userRepository.save(user1)).thenReturn(expected);
-        when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        User actual = userService.updateUser(user1, user1.getId());
+        when(userRepository.updateById(user1.getId(), null, user1)).thenReturn(1);
+        User actual = userService.updateUser(user1, user1.getId(), null);
         assertEquals(expected, actual);
-        verify(userRepository).save(user1);
-        verify(userRepository).findById(user1.getId());
+        verify(userRepository).updateById(user1.getId(), null, user1);
+        verify(userChangeLog).updated(List.of(user1));
     }
 
     @Test
     public void checkUserUpdate_exceptionFlow() {
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            userService.updateUser(user1, 4L);
+            userService.updateUser(user1, 4L, null);
         });
         String expectedMessage = "User not found with Id : '4'";
         String actualMessage = exception.getMessage();
         assertTrue(actualMessage.contains(expectedMessage));
-        verify(userRepository).findById(4L);
+        assertEquals(0, exception.getStackTrace().length);
+        verify(userRepository).updateById(4L, null, user1);
     }
 
     @Test
-    public void checkDeleteUserById_successFlow() {
+    public void checkUserUpdate_versionConflictFlow() {
+        when(userRepository.existsById(user1.getId())).thenReturn(true);
+        Exception exception = assertThrows(PreconditionFailedException.class, () -> {
+            userService.updateUser(user1, user1.getId(), 3L);
+        });
+        assertEquals("User has been modified", exception.getMessage());
+        verify(userRepository).updateById(user1.getId(), 3L, user1);
+        verify(userRepository).existsById(user1.getId());
+    }
+
+    @Test
+    public void checkUserPatch_successFlow() {
         when(userRepository.findById(user1.getId())).thenReturn(Optional.of(user1));
-        userService.deleteUser(user1.getId());
+        User actual = userService.patchUser(user1.getId(), null, user -> user.setAddress("Boston"));
+        assertEquals(user1, actual);
+        assertEquals("Boston", actual.getAddress());
         verify(userRepository).findById(user1.getId());
-        verify(userRepository).deleteById(user1.getId());
+        verify(userRepository).flush();
     }
 
     @Test
-    public void checkDeleteUserById_exceptionFlow() {
+    public void checkUserPatch_exceptionFlow() {
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            userService.deleteUser(4L);
+            userService.patchUser(4L, null, user -> user.setAddress("Boston"));
         });
         String expectedMessage = "User not found with Id : '4'";
         String actualMessage = exception.getMessage();
@@ -139,6 +180,24 @@ public class UserServiceTest {
         verify(userRepository).findById(4L);
     }
 
+    @Test
+    public void checkDeleteUserById_successFlow() {
+        when(userRepository.deleteUserById(user1.getId(), null)).thenReturn(1);
+        userService.deleteUser(user1.getId(), null);
+        verify(userRepository).deleteUserById(user1.getId(), null);
+    }
+
+    @Test
+    public void checkDeleteUserById_exceptionFlow() {
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
+            userService.deleteUser(4L, null);
+        });
+        String expectedMessage = "User not found with Id : '4'";
+        String actualMessage = exception.getMessage();
+        assertTrue(actualMessage.contains(expectedMessage));
+        verify(userRepository).deleteUserById(4L, null);
+    }
+
     @Test
     public void checkAdultUser_successFLow() {
         LocalDate localDate = LocalDate.of(2023, 9, 30);
@@ -152,12 +211,24 @@ public class UserServiceTest {
     public void checkUserByBirthDateRange_successFlow() {
         LocalDate fromDate = LocalDate.of(1993, 9, 30);
         LocalDate toDate = LocalDate.of(2001, 9, 30);
-        List<User> allUsers = Arrays.asList(user1, user2, user3);
-        when(userRepository.findAll()).thenReturn(allUsers);
         List<User> expected = Arrays.asList(user2, user3);
+        when(userRepository.findByBirthDateAfterAndBirthDateBefore(fromDate, toDate, User.class))
+                .thenReturn(expected);
         List<User> actual = userService.usersByBirthDateRange(fromDate, toDate);
         assertEquals(expected, actual);
-        verify(userRepository).findAll();
+        verify(userRepository).findByBirthDateAfterAndBirthDateBefore(fromDate, toDate, User.class);
+    }
+
+    @Test
+    public void checkUserByBirthDateRangePage_successFlow() {
+        LocalDate fromDate = LocalDate.of(1993, 9, 30);
+        LocalDate toDate = LocalDate.of(2001, 9, 30);
+        List<User> expected = List.of(user2);
+        when(userRepository.findPageByBirthDateRange(fromDate, toDate, fromDate, 0L, PageRequest.ofSize(1)))
+                .thenReturn(expected);
+        List<User> actual = userService.usersByBirthDateRangePage(fromDate, toDate, null, 0L, 1);
+        assertEquals(expected, actual);
+        verify(userRepository).findPageByBirthDateRange(fromDate, toDate, fromDate, 0L, PageRequest.ofSize(1));
     }
 
     @Test
@@ -171,4 +242,82 @@ public class UserServiceTest {
         String actualMessage = exception.getMessage();
         assertTrue(actualMessage.contains(expectedMessage));
     }
+
+    @Test
+    public void checkUserByEmail_successFlow() {
+        when(userRepository.findByEmail(user1.getEmail())).thenReturn(Optional.of(user1));
+        User actual = userService.getUserByEmail(user1.getEmail());
+        assertEquals(user1, actual);
+        verify(userRepository).findByEmail(user1.getEmail());
+    }
+
+    @Test
+    public void checkUserByEmail_exceptionFlow() {
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
+            userService.getUserByEmail("nobody@gmail.com");
+        });
+        assertEquals("User not found with Email : 'nobody@gmail.com'", exception.getMessage());
+        verify(userRepository).findByEmail("nobody@gmail.com");
+    }
+
+    @Test
+    public void checkSaveUser_duplicateEmailFlow() {
+        when(userRepository.saveAndFlush(user1)).thenThrow(new DataIntegrityViolationException("Duplicate entry",
+                new ConstraintViolationException("Duplicate entry", null, "users.uk_users_email")));
+        assertThrows(DuplicateEmailException.class, () -> userService.saveUser(user1));
+        verify(userRepository).saveAndFlush(user1);
+        verifyNoInteractions(userChangeLog);
+    }
+
+    @Test
+    public void checkSearchUsers_successFlow() {
+        List<User> expected = List.of(user1);
+        when(userRepository.search(List.of("Bob", "Smi"), 20, 10)).thenReturn(expected);
+        List<User> actual = userService.searchUsers("  Bob \t Smi ", 2, 10);
+        assertEquals(expected, actual);
+        verify(userRepository).search(List.of("Bob", "Smi"), 20, 10);
+    }
+
+    @Test
+    public void checkSearchUsers_blankQueryFlow() {
+        assertTrue(userService.searchUsers("   ", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void checkSearchUsers_shortTokenFlow() {
+        assertThrows(SearchQueryException.class, () -> userService.searchUsers("Bob Sm", 0, 10));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void checkUserStats_successFlow() {
+        LocalDate today = LocalDate.now();
+        AgeBracketCounts counts = mock(AgeBracketCounts.class);
+        when(counts.getUnder30()).thenReturn(1L);
+        when(counts.getUnder45()).thenReturn(2L);
+        when(userRepository.countByAgeBracket(today.minusYears(18), today.minusYears(30),
+                today.minusYears(45), today.minusYears(65))).thenReturn(counts);
+        List<BirthMonthCount> months = List.of(birthMonth(1980, 11, 1), birthMonth(1995, 6, 1), birthMonth(2000, 1, 1));
+        when(userRepository.countByBirthMonth()).thenReturn(months);
+
+        UserStatsDTO actual = userService.getUserStats();
+
+        assertEquals(today, actual.getAsOf());
+        assertEquals(3, actual.getTotal());
+        assertEquals(List.of("0-17", "18-29", "30-44", "45-64", "65+"), List.copyOf(actual.getAgeBrackets().keySet()));
+        assertEquals(List.of(0L, 1L, 2L, 0L, 0L), List.copyOf(actual.getAgeBrackets().values()));
+        assertEquals(new BirthMonthCountDTO(1980, 11, 1), actual.getBirthMonths().get(0));
+        assertSame(actual, userService.getUserStats());
+        verify(userRepository).countByAgeBracket(today.minusYears(18), today.minusYears(30),
+                today.minusYears(45), today.minusYears(65));
+        verify(userRepository).countByBirthMonth();
+    }
+
+    private static BirthMonthCount birthMonth(int year, int month, long count) {
+        BirthMonthCount birthMonthCount = mock(BirthMonthCount.class);
+        when(birthMonthCount.getBirthYear()).thenReturn(year);
+        when(birthMonthCount.getBirthMonth()).thenReturn(month);
+        when(birthMonthCount.getCount()).thenReturn(count);
+        return birthMonthCount;
+    }
 }
@@ -0,0 +1,63 @@
+package com.clear_solutions.test_assignment.unit.service;
+
+import com.clear_solutions.test_assignment.config.UserAgeConfig;
+import com.clear_solutions.test_assignment.dto.UserStatsDTO;
+import com.clear_solutions.test_assignment.repository.AgeBracketCounts;
+import com.clear_solutions.test_assignment.repository.UserRepository;
+import com.clear_solutions.test_assignment.service.UserService;
+import com.clear_solutions.test_assignment.service.impl.AdultAgeCutoff;
+import com.clear_solutions.test_assignment.service.impl.UserChangeLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stats with an adult age above the first bracket bound of 30.
+ */
+@WebMvcTest(value = UserService.class)
+@Import({UserAgeConfig.class, AdultAgeCutoff.class})
+@TestPropertySource(properties = "user.age=40")
+public class UserStatsAgeBracketsTest {
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private UserChangeLog userChangeLog;
+
+    @AfterEach
+    public void afterEach() {
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    public void checkUserStats_bracketsFromAgeFlow() {
+        LocalDate today = LocalDate.now();
+        AgeBracketCounts counts = mock(AgeBracketCounts.class);
+        when(counts.getMinors()).thenReturn(1L);
+        when(counts.getUnder45()).thenReturn(2L);
+        when(counts.getSeniors()).thenReturn(3L);
+        when(userRepository.countByAgeBracket(today.minusYears(40), today.minusYears(40),
+                today.minusYears(45), today.minusYears(65))).thenReturn(counts);
+
+        UserStatsDTO actual = userService.getUserStats();
+
+        assertEquals(List.of("0-39", "40-44", "45-64", "65+"), List.copyOf(actual.getAgeBrackets().keySet()));
+        assertEquals(List.of(1L, 2L, 0L, 3L), List.copyOf(actual.getAgeBrackets().values()));
+        verify(userRepository).countByAgeBracket(today.minusYears(40), today.minusYears(40),
+                today.minusYears(45), today.minusYears(65));
+        verify(userRepository).countByBirthMonth();
+    }
+}
@@ -0,0 +1,113 @@
+package com.clear_solutions.test_assignment.unit.validation;
+
+import com.clear_solutions.test_assignment.dto.UserDTO;
+import com.clear_solutions.test_assignment.validation.UserDTOValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * {@link UserDTOValidator} must reject exactly what the Bean Validation
+ * annotations on {@link UserDTO} reject, with the same messages.
+ */
+public class UserDTOValidatorTest {
+
+    private static final String[] EMAILS = {
+            null, "", " ", "test1@gmail.com", "a@b", "a.b@c.d", "a..b@c.d", ".a@b.c", "a.@b.c", "a@.b", "a@b.",
+            "a@b..c", "a@-b.c", "a@b-.c", "a@b-c.d", "a@b--c.d", "a@@b.c", "a@b@c.d", "@b.c", "a@", "a b@c.d",
+            "a_b!#$%&'*+/=?`{|}~^-@c.d", "a@b_c.d", "\"a\"@b.c", "a@[1.2.3.4]", "ä@b.c", "a@b.c\n", "A@B.C",
+            "a".repeat(64) + "@b.c", "a".repeat(65) + "@b.c", "a@" + "b".repeat(63) + ".c", "a@" + "b".repeat(64) + ".c",
+            "a@" + ("b".repeat(63) + ".").repeat(4) + "c".repeat(3), "a@" + ("b".repeat(63) + ".").repeat(4) + "c".repeat(20)
+    };
+
+    private static final String[] NAMES = {
+            null, "", " ", "  \t", "Bo", "Bob", "Smith", "BobSmithBobSmithBobS", "BobSmithBobSmithBobSm",
+            "Bob1", "Bob Smith", "Bób", "Bob\n", " Bob", "bob"
+    };
+
+    private static final LocalDate[] BIRTH_DATES = {
+            null, LocalDate.of(1980, 11, 20), LocalDate.now().minusDays(1), LocalDate.now(), LocalDate.now().plusDays(1)
+    };
+
+    private static ValidatorFactory validatorFactory;
+
+    private static Validator beanValidator;
+
+    private final UserDTOValidator userDTOValidator = new UserDTOValidator();
+
+    @BeforeAll
+    public static void beforeAll() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        validatorFactory.close();
+    }
+
+    @Test
+    public void checkEmails_matchBeanValidation() {
+        for (String email : EMAILS) {
+            assertSameMessages(user(email, "Bob", "Smith", LocalDate.of(1980, 11, 20)));
+        }
+    }
+
+    @Test
+    public void checkNames_matchBeanValidation() {
+        for (String firstName : NAMES) {
+            for (String lastName : NAMES) {
+                assertSameMessages(user("test1@gmail.com", firstName, lastName, LocalDate.of(1980, 11, 20)));
+            }
+        }
+    }
+
+    @Test
+    public void checkBirthDates_matchBeanValidation() {
+        for (LocalDate birthDate : BIRTH_DATES) {
+            assertSameMessages(user("test1@gmail.com", "Bob", "Smith", birthDate));
+        }
+    }
+
+    @Test
+    public void checkSpringValidator_rejectsFields() {
+        UserDTO userDTO = user("not an email", "Bob", "Smith", LocalDate.of(1980, 11, 20));
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(userDTO, "userDTO");
+
+        userDTOValidator.validate(userDTO, errors);
+
+        FieldError error = errors.getFieldError();
+        assertEquals(1, errors.getErrorCount());
+        assertEquals("email", error.getField());
+        assertEquals("Email is not valid", error.getDefaultMessage());
+    }
+
+    private void assertSameMessages(UserDTO userDTO) {
+        String[] expected = beanValidator.validate(userDTO).stream()
+                .map(ConstraintViolation::getMessage).sorted().toArray(String[]::new);
+        List<String> actual = userDTOValidator.validate(userDTO);
+        String[] actualSorted = actual.stream().sorted().toArray(String[]::new);
+        assertEquals(Arrays.asList(expected), Arrays.asList(actualSorted), userDTO.toString());
+    }
+
+    private static UserDTO user(String email, String firstName, String lastName, LocalDate birthDate) {
+        return UserDTO.builder()
+                .email(email)
+                .firstName(firstName)
+                .lastName(lastName)
+                .birthDate(birthDate)
+                .build();
+    }
+}